@@ -0,0 +1,152 @@
+package approx;
+
+import common.sketch.CountMinSketch;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * 단어 또는 IP의 빈도 수를 Count-Min Sketch로 추정하는 맵리듀스의 드라이버 파일(근사 모드)
+ *
+ * wc.WordCount, ip.IPCount는 서로 다른 키를 모두 Shuffle and Sort로 전달하지만,
+ * 이 잡은 매퍼마다 고정된 크기의 스케치 1개만 전달하고 리듀서 1개가 스케치를 합침
+ *  - 결과 파일 : 많이 나온 키(Heavy Hitter)와 추정 빈도 수
+ *  - sketch 파일 : 합친 스케치; ApproxQuery로 키별 추정 빈도 수를 잡 실행 없이 바로 조회함
+ *
+ * 오차와 신뢰도는 Configuration 변수로 설정함
+ *  - sketchEpsilon(기본 0.001) : 추정 값은 정확한 빈도 수 + 전체 빈도 수 * sketchEpsilon 이하
+ *  - sketchDelta(기본 0.01) : 위 오차 범위를 벗어날 확률
+ *  - heavyHitterRatio(기본 0.01) : 전체 빈도 수의 1% 이상 나온 키를 Heavy Hitter로 저장
+ */
+@Log4j
+public class ApproxCount extends Configuration implements Tool {
+
+    // 빈도 수를 셀 키 종류를 저장하는 Configuration 변수 이름과 값
+    public static final String APPROX_KEY = "approxKey";
+    public static final String MODE_WORD = "word";
+    public static final String MODE_IP = "ip";
+
+    // 스케치의 오차 비율, 오차 범위를 벗어날 확률, Heavy Hitter 기준 비율을 저장하는 Configuration 변수 이름
+    public static final String SKETCH_EPSILON = "sketchEpsilon";
+    public static final String SKETCH_DELTA = "sketchDelta";
+    public static final String HEAVY_HITTER_RATIO = "heavyHitterRatio";
+
+    public static final double DEFAULT_SKETCH_EPSILON = 0.001;
+    public static final double DEFAULT_SKETCH_DELTA = 0.01;
+    public static final double DEFAULT_HEAVY_HITTER_RATIO = 0.01;
+
+    // 결과 폴더에 저장되는 스케치 파일 이름
+    public static final String SKETCH_FILE = "sketch";
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 폴더 2개 받음
+        // 세 번째 파라미터로 빈도 수를 셀 키 종류(word, ip)를 입력할 수 있음(선택, 기본 word)
+        if (args.length != 2 && args.length != 3) {
+            log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new ApproxCount(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Approximate Count");
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 빈도 수를 셀 키 종류 -- 세 번째 파라미터(선택), 입력하지 않으면 단어
+        if (args.length == 3) {
+            conf.set(APPROX_KEY, args[2]);
+        }
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        Job job = Job.getInstance(conf);
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(ApproxCount.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // 분석할 폴더(파일) -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // 분석 결과가 저장되는 폴더 -- 두 번째 파라미터
+        FileOutputFormat.setOutputPath(job, new Path(args[1]));
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(ApproxCountMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(ApproxCountReducer.class);
+
+        // 매퍼들의 스케치를 합쳐야 하기 때문에 리듀스는 1개만 실행함
+        // 리듀서로 오는 데이터는 매퍼 수만큼의 스케치로 제한됨
+        job.setNumReduceTasks(1);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 키(key)와 값(value)의 데이터 타입
+        // 키는 사용하지 않고, 값으로 매퍼의 스케치와 Heavy Hitter 후보를 전달함
+        job.setMapOutputKeyClass(NullWritable.class);
+        job.setMapOutputValueClass(SketchSummaryWritable.class);
+
+        // 분석 결과가 저장될 때 사용될 키(key)와 값(value)의 데이터 타입; Heavy Hitter와 추정 빈도 수
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(LongWritable.class);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        return (success ? 0 : 1);
+
+    }
+
+    /**
+     * Configuration에 저장된 오차 비율과 확률로 스케치 만들기
+     * 매퍼와 리듀서가 같은 크기의 스케치를 사용해야 합칠 수 있음
+     */
+    static CountMinSketch newSketch(Configuration conf) {
+        return new CountMinSketch(conf.getDouble(SKETCH_EPSILON, DEFAULT_SKETCH_EPSILON), conf.getDouble(SKETCH_DELTA, DEFAULT_SKETCH_DELTA));
+    }
+
+}
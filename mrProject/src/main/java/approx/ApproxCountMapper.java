@@ -0,0 +1,141 @@
+package approx;
+
+import common.collect.BytesIntHashMap;
+import common.parser.AccessLogParser;
+import common.parser.WordTokenizer;
+import common.sketch.CountMinSketch;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * 단어 또는 IP의 빈도 수를 Count-Min Sketch에 더하고, 매퍼가 끝날 때 스케치 1개만 전달하는 Mapper
+ *
+ * 정확한 빈도 수를 구하려면 서로 다른 키를 모두 Shuffle and Sort로 전달해야 하지만,
+ * 이 매퍼는 키의 수와 관계없이 고정된 크기의 스케치와 많이 나온 키(Heavy Hitter) 후보만 전달함
+ *
+ * Heavy Hitter 후보 : 추정 빈도 수가 매퍼의 전체 빈도 수 * heavyHitterRatio 이상인 키
+ * 전체 데이터에서 많이 나온 키는 적어도 하나의 매퍼에서도 많이 나오기 때문에 후보에 포함됨
+ * 후보가 2 / heavyHitterRatio개를 넘으면, 기준보다 작아진 후보를 지움
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(NullWritable, SketchSummaryWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ */
+public class ApproxCountMapper extends Mapper<LongWritable, Text, NullWritable, SketchSummaryWritable> {
+
+    // 빈도 수를 셀 키 종류(ApproxCount.MODE_WORD : 단어, ApproxCount.MODE_IP : IP)
+    private boolean ipMode;
+
+    // 한 줄을 단어로 나누는 토크나이저와 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private final AccessLogParser parser = new AccessLogParser();
+
+    private CountMinSketch sketch;
+
+    // Heavy Hitter 후보 키(값은 사용하지 않음)
+    private BytesIntHashMap candidates;
+
+    private double heavyHitterRatio;
+    private int maxCandidates;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        Configuration conf = context.getConfiguration();
+
+        this.ipMode = ApproxCount.MODE_IP.equals(conf.get(ApproxCount.APPROX_KEY, ApproxCount.MODE_WORD));
+        this.sketch = ApproxCount.newSketch(conf);
+        this.heavyHitterRatio = conf.getDouble(ApproxCount.HEAVY_HITTER_RATIO, ApproxCount.DEFAULT_HEAVY_HITTER_RATIO);
+        this.maxCandidates = (int) Math.ceil(2 / this.heavyHitterRatio);
+        this.candidates = new BytesIntHashMap(this.maxCandidates);
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        if (ipMode) {
+
+            // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
+            // IPCount와 같이 첫 번째 값(IP 또는 호스트 이름)의 바이트를 그대로 키로 사용함
+            if (parser.parse(value)) {
+                add(parser.getBytes(), parser.getIpStart(), parser.getIpLength());
+            }
+
+            return;
+
+        }
+
+        // 분석할 파일의 한 줄 값; ex) the cat sat on the mat
+        tokenizer.reset(value);
+
+        while (tokenizer.next()) {
+            add(tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength());
+        }
+
+    }
+
+    /**
+     * 키를 스케치에 더하고, 추정 빈도 수가 기준 이상이면 Heavy Hitter 후보에 추가하기
+     */
+    private void add(byte[] bytes, int start, int length) {
+
+        long estimate = sketch.add(bytes, start, length, 1);
+
+        if (estimate < heavyHitterRatio * sketch.getTotal()) {
+            return;
+        }
+
+        candidates.add(bytes, start, length, 0);
+
+        if (candidates.size() > maxCandidates) {
+            prune();
+        }
+
+    }
+
+    /**
+     * 추정 빈도 수가 기준보다 작아진 후보 지우기
+     * BytesIntHashMap은 항목을 지울 수 없어서 남길 후보만 새 해시 테이블에 옮김
+     */
+    private void prune() {
+
+        BytesIntHashMap survivors = new BytesIntHashMap(maxCandidates);
+        byte[] data = candidates.getKeyData();
+        double threshold = heavyHitterRatio * sketch.getTotal();
+
+        for (int i = 0; i < candidates.size(); i++) {
+
+            int start = candidates.keyStart(i);
+            int length = candidates.keyLength(i);
+
+            if (sketch.estimate(data, start, length) >= threshold) {
+                survivors.add(data, start, length, 0);
+            }
+
+        }
+
+        candidates = survivors;
+
+    }
+
+    /**
+     * 매퍼의 스케치와 Heavy Hitter 후보를 리듀서로 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        prune();
+
+        context.write(NullWritable.get(), new SketchSummaryWritable(sketch, candidates));
+
+        super.cleanup(context);
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package approx;
+
+import common.collect.BytesIntHashMap;
+import common.sketch.CountMinSketch;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 매퍼들의 Count-Min Sketch를 합쳐서 전체 스케치를 만들고, 많이 나온 키(Heavy Hitter)를 찾는 Reducer(리듀서 1개로 실행)
+ *
+ * 1. 매퍼들의 스케치를 합치고(merge), Heavy Hitter 후보를 모음
+ * 2. 합친 스케치로 후보의 추정 빈도 수를 구하고, 전체 빈도 수 * heavyHitterRatio 이상인 키를 빈도 수가 큰 순서로 저장함
+ * 3. 합친 스케치를 결과 폴더의 sketch 파일에 저장함; ApproxQuery로 잡을 다시 실행하지 않고 키별 빈도 수를 바로 조회할 수 있음
+ *
+ * 결과 파일 ex) the	10712 (추정 값은 정확한 빈도 수보다 작지 않음)
+ */
+public class ApproxCountReducer extends Reducer<NullWritable, SketchSummaryWritable, Text, LongWritable> {
+
+    // 결과 파일에 저장할 키와 추정 빈도 수; 태스크 동안 재사용
+    private final Text outKey = new Text();
+    private final LongWritable result = new LongWritable();
+
+    @Override
+    public void reduce(NullWritable key, Iterable<SketchSummaryWritable> values, Context context) throws IOException, InterruptedException {
+
+        Configuration conf = context.getConfiguration();
+
+        CountMinSketch sketch = ApproxCount.newSketch(conf);
+        BytesIntHashMap candidates = new BytesIntHashMap();
+
+        // values 객체는 재사용되기 때문에 스케치는 더하고, 후보 키는 복사해서 모음
+        for (SketchSummaryWritable value : values) {
+
+            sketch.merge(value.getSketch());
+
+            BytesIntHashMap c = value.getCandidates();
+            byte[] data = c.getKeyData();
+
+            for (int i = 0; i < c.size(); i++) {
+                candidates.add(data, c.keyStart(i), c.keyLength(i), 0);
+            }
+
+        }
+
+        writeHeavyHitters(context, sketch, candidates, conf.getDouble(ApproxCount.HEAVY_HITTER_RATIO, ApproxCount.DEFAULT_HEAVY_HITTER_RATIO));
+
+        writeSketch(context, sketch);
+
+        // 전체 빈도 수와 최대 오차를 Counter로 기록함
+        context.getCounter("approx", "total").increment(sketch.getTotal());
+        context.getCounter("approx", "errorBound").increment(sketch.errorBound());
+
+    }
+
+    /**
+     * 추정 빈도 수가 기준 이상인 후보를 빈도 수가 큰 순서로 저장하기
+     */
+    private void writeHeavyHitters(Context context, CountMinSketch sketch, BytesIntHashMap candidates, double ratio) throws IOException, InterruptedException {
+
+        byte[] data = candidates.getKeyData();
+        double threshold = ratio * sketch.getTotal();
+
+        // (추정 빈도 수, 후보 번호)를 long 1개로 합쳐서 정렬함(빈도 수 상위 비트, 번호 하위 32비트)
+        long[] order = new long[candidates.size()];
+        int n = 0;
+
+        for (int i = 0; i < candidates.size(); i++) {
+
+            long estimate = sketch.estimate(data, candidates.keyStart(i), candidates.keyLength(i));
+
+            if (estimate >= threshold) {
+                order[n++] = (Math.min(estimate, Integer.MAX_VALUE) << 32) | i;
+            }
+
+        }
+
+        Arrays.sort(order, 0, n);
+
+        for (int j = n - 1; j >= 0; j--) {
+
+            int i = (int) order[j];
+
+            outKey.set(data, candidates.keyStart(i), candidates.keyLength(i));
+            result.set(sketch.estimate(data, candidates.keyStart(i), candidates.keyLength(i)));
+
+            context.write(outKey, result);
+
+        }
+
+    }
+
+    /**
+     * 합친 스케치를 결과 폴더의 sketch 파일에 저장하기
+     * 태스크의 작업 폴더에 저장하면, 잡이 성공했을 때 결과 폴더로 옮겨짐
+     */
+    private void writeSketch(Context context, CountMinSketch sketch) throws IOException, InterruptedException {
+
+        Path path = new Path(FileOutputFormat.getWorkOutputPath(context), ApproxCount.SKETCH_FILE);
+
+        try (FSDataOutputStream out = path.getFileSystem(context.getConfiguration()).create(path)) {
+            sketch.write(out);
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package approx;
+
+import common.sketch.CountMinSketch;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ApproxCount 잡이 저장한 sketch 파일로 키별 추정 빈도 수를 조회하는 프로그램
+ * 맵리듀스 잡을 실행하지 않고 스케치 파일만 읽기 때문에 몇 초 안에 결과를 확인할 수 있음
+ *
+ * ex) hadoop jar mr.jar approx.ApproxQuery /approx_result the 96.7.4.14
+ * 출력 ex) the	10712	(정확한 값 10658 ~ 10712)
+ * Count-Min Sketch는 과대 추정만 하기 때문에 오차 범위는 추정 값 아래쪽으로만 있음
+ */
+@Log4j
+public class ApproxQuery {
+
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 ApproxCount 결과 폴더와 조회할 키(1개 이상) 받음
+        if (args.length < 2) {
+            log.info("ApproxCount 결과 폴더와 조회할 키를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        Configuration conf = new Configuration();
+        Path path = new Path(args[0], ApproxCount.SKETCH_FILE);
+
+        CountMinSketch sketch = new CountMinSketch();
+
+        try (FSDataInputStream in = path.getFileSystem(conf).open(path)) {
+            sketch.readFields(in);
+        }
+
+        // 추정 값은 정확한 빈도 수 이상, 정확한 빈도 수 + 오차 이하(1 - sketchDelta 확률)
+        long errorBound = sketch.errorBound();
+
+        log.info("total : " + sketch.getTotal() + ", errorBound : " + errorBound);
+
+        for (int i = 1; i < args.length; i++) {
+
+            byte[] key = args[i].getBytes(StandardCharsets.UTF_8);
+
+            long estimate = sketch.estimate(key, 0, key.length);
+
+            // 정확한 값은 추정 값 - 오차 이상, 추정 값 이하(빈도 수는 음수가 될 수 없기 때문에 하한은 0 이상)
+            long lower = Math.max(0L, estimate - errorBound);
+
+            System.out.println(args[i] + "\t" + estimate + "\t(정확한 값 " + lower + " ~ " + estimate + ")");
+
+        }
+
+    }
+
+}
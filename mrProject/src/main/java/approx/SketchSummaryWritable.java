@@ -0,0 +1,86 @@
+package approx;
+
+import common.collect.BytesIntHashMap;
+import common.sketch.CountMinSketch;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 매퍼가 리듀서로 보내는 요약 값(value) 데이터 타입
+ * 매퍼의 Count-Min Sketch와 많이 나온 키(Heavy Hitter) 후보 목록을 함께 전달함
+ *
+ * 직렬화 형태 : 스케치 + 후보 수(VInt) + 후보별 (길이(VInt) + 키 바이트)
+ */
+public class SketchSummaryWritable implements Writable {
+
+    private final CountMinSketch sketch;
+
+    // 후보 키(값은 사용하지 않음)
+    private final BytesIntHashMap candidates;
+
+    // 직렬화할 때 키를 읽는 배열(readFields마다 새로 만들지 않도록 재사용)
+    private byte[] buffer = new byte[64];
+
+    // Writable은 기본 생성자가 필요함
+    public SketchSummaryWritable() {
+        this(new CountMinSketch(), new BytesIntHashMap());
+    }
+
+    public SketchSummaryWritable(CountMinSketch sketch, BytesIntHashMap candidates) {
+        this.sketch = sketch;
+        this.candidates = candidates;
+    }
+
+    public CountMinSketch getSketch() {
+        return this.sketch;
+    }
+
+    public BytesIntHashMap getCandidates() {
+        return this.candidates;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+
+        this.sketch.write(out);
+
+        byte[] data = this.candidates.getKeyData();
+
+        WritableUtils.writeVInt(out, this.candidates.size());
+
+        for (int i = 0; i < this.candidates.size(); i++) {
+            WritableUtils.writeVInt(out, this.candidates.keyLength(i));
+            out.write(data, this.candidates.keyStart(i), this.candidates.keyLength(i));
+        }
+
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+
+        this.sketch.readFields(in);
+        this.candidates.clear();
+
+        int size = WritableUtils.readVInt(in);
+
+        for (int i = 0; i < size; i++) {
+
+            int length = WritableUtils.readVInt(in);
+
+            if (this.buffer.length < length) {
+                this.buffer = new byte[length];
+            }
+
+            in.readFully(this.buffer, 0, length);
+
+            this.candidates.add(this.buffer, 0, length, 0);
+
+        }
+
+    }
+
+}
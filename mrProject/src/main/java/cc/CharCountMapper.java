@@ -1,18 +1,23 @@
 package cc;
 
-import org.apache.hadoop.io.IntWritable;
+import common.mapreduce.CountMapper;
+import common.parser.WordTokenizer;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
 
 /**
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
+ * 출력 키(Text)와 값(IntWritable) 객체를 재사용하기 위해 Mapper를 상속받은 CountMapper를 상속받음
  * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
  * Mapper 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
  */
-public class CharCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+public class CharCountMapper extends CountMapper<LongWritable, Text> {
+
+    // 한 줄을 단어로 나누는 토크나이저(레코드마다 새로 만들지 않고 재사용함)
+    // 대소문자 구분을 없애기 위해 모든 단어를 소문자로 변경함
+    private final WordTokenizer tokenizer = new WordTokenizer(true);
 
     /**
      * 부모 Mapper 자바 파일에 작성된 map 함수를 덮어쓰기(Override) 수행
@@ -22,23 +27,19 @@ public class CharCountMapper extends Mapper<LongWritable, Text, Text, IntWritabl
     @Override
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
 
-        // 분석할 파일의 한 줄 값
-        String line = value.toString(); // ex) the cat sat on the mat
-
-        // 단어 빈도 수 구현은 공백을 기준으로 나눈 단어로 구분함
-        // 분석할 한 줄 내용을 공백으로 나눔
-        // word 변수에는 공백을 기준으로 나눠진 단어가 저장됨
-        for (String word : line.split("\\W+")) { // \\W+ : '알파벳, 숫자, _ 이외의 문자(특수문자, 공백)'를 의미하는 정규식
+        // 분석할 파일의 한 줄 값; ex) the cat sat on the mat
+        // String으로 변환하지 않고 Text의 바이트를 그대로 단어로 나눔
+        tokenizer.reset(value);
 
-            // word 변수에서 3글자 이상인 단어의 빈도 수 세기
-            if (word.length() > 3) {
+        // 단어 빈도 수 구현은 공백, 특수문자를 기준으로 나눈 단어로 구분함
+        while (tokenizer.next()) {
 
-                // 대소문자 구분을 없애기 위해 모두 소문자로 변경
-                word = word.toLowerCase();
+            // 3글자 이상인 단어의 빈도 수 세기(글자 수는 String.length()와 같은 기준)
+            if (tokenizer.getCharLength() > 3) {
 
                 // Shuffle and Sort로 데이터 전달하기
-                // 전달하는 값은 단어와 빈도 수(1)를 전달
-                context.write(new Text(word), new IntWritable(1));
+                // 전달하는 값은 단어(소문자)와 빈도 수(1)를 전달(In-Mapper Combining을 사용하면 매퍼 안에서 먼저 합침)
+                count(context, tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength());
             }
         }
     }
@@ -0,0 +1,522 @@
+package check;
+
+import approx.ApproxCountMapper;
+import cache.WordCount3Mapper;
+import cache.WordCount3Reducer;
+import cc.CharCountMapper;
+import cc.CharCountReducer;
+import combiner.IPCount2Mapper;
+import combiner.IPCount2Reducer;
+import common.mapreduce.CountMapper;
+import ip.IPCountMapper;
+import ip.IPCountPackedMapper;
+import ip.IPCountReducer;
+import maponly.ImageCountMapper;
+import mongo.MonthLog2Mapper;
+import multi.AccessLogStatsMapper;
+import noreduce.WordCount4Mapper;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapred.RawKeyValueIterator;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.map.WrappedMapper;
+import org.apache.hadoop.mapreduce.lib.reduce.WrappedReducer;
+import org.apache.hadoop.mapreduce.task.MapContextImpl;
+import org.apache.hadoop.mapreduce.task.ReduceContextImpl;
+import org.apache.hadoop.util.Progress;
+import org.apache.hadoop.util.ReflectionUtils;
+import partition.MonthLogMapper;
+import partition.TimeLogMapper;
+import partition.UniqueVisitorMapper;
+import success.ResultCountMapper;
+import success.ResultCountReducer;
+import tool.WordCount2Mapper;
+import tool.WordCount2Reducer;
+import topk.TopKMapper;
+import wc.WordCountMapper;
+import wc.WordCountReducer;
+import wc.WordRankMapper;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 매퍼와 리듀서가 입력 레코드 1건을 처리할 때 할당(Allocation)하는 메모리 크기를 측정하는 점검 프로그램
+ * 레코드마다 만들어지는 객체(가비지)가 늘어나면 태스크의 GC가 자주 발생하기 때문에 매퍼, 리듀서를 수정한 후 실행하여 확인함
+ *
+ * 하둡 클러스터 없이 현재 JVM 안에서 매퍼와 리듀서를 실행함
+ *  - 매퍼 : 샘플 파일의 줄을 RECORDS 건 읽음
+ *  - 리듀서 : Shuffle and Sort가 끝난 것처럼 키별로 묶인 (키, 빈도 수)를 RECORDS 건 읽음
+ *    키마다 객체를 만드는 경우를 찾을 수 있도록 리듀서는 입력 키 1개(reduce 함수 1번 실행)당 할당 크기를 측정함
+ * 잡별 기준 값(budget)은 측정 값에 BUDGET_MARGIN 바이트를 더한 값이며, 기준 값보다 많이 할당하면 종료 코드 1을 반환함
+ * 매퍼나 리듀서를 수정해서 측정 값이 달라지면, 할당이 늘어난 이유를 확인한 후 기준 값을 다시 정함
+ *
+ * 모든 잡의 매퍼, 리듀서를 참조하기 때문에 공통 객체(common 패키지)와 분리된 패키지에 둠
+ * ex) hadoop jar mr.jar check.AllocationCheck
+ */
+public class AllocationCheck {
+
+    // 측정에 사용할 레코드 수
+    private static final int RECORDS = 200000;
+
+    // 측정 전에 JIT 컴파일이 끝나도록 미리 실행하는 횟수
+    private static final int WARMUP = 3;
+
+    // 분석할 로그 파일 샘플(/access_log)
+    private static final String[] ACCESS_LOG = {
+            "96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] \"GET /cat.jpg HTTP/1.1\" 200 12433",
+            "10.223.157.186 - - [15/Jul/2009:14:58:59 -0700] \"GET / HTTP/1.1\" 403 202",
+            "10.223.157.186 - - [15/Jul/2009:15:50:35 -0700] \"GET /assets/img/home-logo.png HTTP/1.1\" 200 3686",
+            "172.16.0.3 - - [25/Sep/2002:14:04:19 +0200] \"GET /Images/Dog.GIF HTTP/1.1\" 404 -",
+            "10.1.2.3 - - [01/Dec/2011:23:59:59 -0500] \"POST /login.php HTTP/1.0\" 500 1024"
+    };
+
+    // 분석할 텍스트 파일 샘플(/comedies)
+    private static final String[] COMEDIES = {
+            "ALL'S WELL THAT ENDS WELL",
+            "  KING OF FRANCE. Let him be sent for, and may he be forgiven!",
+            "  HELENA. I do affect a sorrow indeed, but I have it too.",
+            "    BERTRAM. Madam, I desire your holy wishes.",
+            "셰익스피어의 희극 작품 중 하나로 끝이 좋으면 다 좋다는 이야기",
+            ""
+    };
+
+    // 측정 값보다 조금 더 할당해도 통과하도록 기준 값에 더한 여유(byte)
+    // 해시 테이블처럼 태스크마다 1번 만드는 객체의 크기가 레코드 수로 나눠져 몇 바이트의 차이가 생길 수 있음
+    private static final long BUDGET_MARGIN = 4;
+
+    // 리듀서 입력 키 샘플(단어, IP, 결과 코드); 키마다 VALUES_PER_KEY개의 빈도 수가 묶여서 전달됨
+    private static final String[] REDUCE_KEYS = {
+            "the",
+            "WELL",
+            "96.7.4.14",
+            "셰익스피어의",
+            "200",
+            "4xx\t04"
+    };
+
+    // 리듀서 입력 키 1개에 묶인 빈도 수의 개수(매퍼나 컴바이너에서 미리 합친 값도 섞여 있음)
+    private static final int VALUES_PER_KEY = 8;
+
+    // 빈도 수 결과 파일 샘플(WordCount, IPCount 결과)
+    private static final String[] COUNT_RESULT = {
+            "the\t10708",
+            "WELL\t6",
+            "96.7.4.14\t364",
+            "셰익스피어의\t1",
+            "invalid line"
+    };
+
+    // 측정할 매퍼 또는 리듀서 정보
+    private static class Case {
+
+        final String name;
+        final Class<? extends Mapper<?, ?, ?, ?>> mapperClass; // 리듀서를 측정하면 null
+        final Class<? extends Reducer<?, ?, ?, ?>> reducerClass; // 매퍼를 측정하면 null
+        final String[] lines; // 매퍼의 입력 줄 또는 리듀서의 입력 키
+        final long budget; // 레코드(리듀서는 입력 키) 1건당 허용하는 최대 할당 크기(byte); 측정 값 + BUDGET_MARGIN
+        final boolean inMapperCombine; // In-Mapper Combining 사용 여부
+
+        // 마지막 실행에서 매퍼나 리듀서가 전달한 레코드 수
+        long outputRecords;
+
+        private Case(String name, Class<? extends Mapper<?, ?, ?, ?>> mapperClass, Class<? extends Reducer<?, ?, ?, ?>> reducerClass,
+                     String[] lines, long measured, boolean inMapperCombine) {
+            this.name = name;
+            this.mapperClass = mapperClass;
+            this.reducerClass = reducerClass;
+            this.lines = lines;
+            this.budget = measured + BUDGET_MARGIN;
+            this.inMapperCombine = inMapperCombine;
+        }
+
+        /**
+         * @param measured 기준 값을 정할 때 측정한 레코드(리듀서는 입력 키) 1건당 할당 크기(byte)
+         */
+        static Case mapper(String name, Class<? extends Mapper<?, ?, ?, ?>> mapperClass, String[] lines, long measured) {
+            return new Case(name, mapperClass, null, lines, measured, false);
+        }
+
+        static Case combiningMapper(String name, Class<? extends Mapper<?, ?, ?, ?>> mapperClass, String[] lines, long measured) {
+            return new Case(name, mapperClass, null, lines, measured, true);
+        }
+
+        static Case reducer(String name, Class<? extends Reducer<?, ?, ?, ?>> reducerClass, long measured) {
+            return new Case(name, null, reducerClass, REDUCE_KEYS, measured, false);
+        }
+
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        List<Case> cases = new ArrayList<>();
+
+        // 매퍼; 마지막 값은 측정한 레코드 1건당 할당 크기(In-Mapper Combining은 해시 테이블 크기가 레코드 수로 나눠진 값)
+        cases.add(Case.mapper("wc.WordCount", WordCountMapper.class, COMEDIES, 0));
+        cases.add(Case.mapper("cc.CharCount", CharCountMapper.class, COMEDIES, 0));
+        cases.add(Case.mapper("tool.WordCount2", WordCount2Mapper.class, COMEDIES, 0));
+        cases.add(Case.mapper("cache.WordCount3", WordCount3Mapper.class, COMEDIES, 0));
+        cases.add(Case.mapper("noreduce.WordCount4", WordCount4Mapper.class, COMEDIES, 0));
+        cases.add(Case.combiningMapper("wc.WordCount+combine", WordCountMapper.class, COMEDIES, 10));
+        cases.add(Case.combiningMapper("noreduce.WordCount4+combine", WordCount4Mapper.class, COMEDIES, 10));
+        cases.add(Case.mapper("ip.IPCount", IPCountMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("combiner.IPCount2", IPCount2Mapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("ip.IPCount packed", IPCountPackedMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("partition.TimeLog", TimeLogMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("partition.MonthLog", MonthLogMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.combiningMapper("partition.TimeLog+combine", TimeLogMapper.class, ACCESS_LOG, 6));
+        cases.add(Case.mapper("partition.UniqueVisitor", UniqueVisitorMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.combiningMapper("multi.AccessLogStats", AccessLogStatsMapper.class, ACCESS_LOG, 10));
+        cases.add(Case.mapper("maponly.ImageCount", ImageCountMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("success.ResultCount", ResultCountMapper.class, ACCESS_LOG, 0));
+        cases.add(Case.mapper("wc.WordRank", WordRankMapper.class, COUNT_RESULT, 0));
+        cases.add(Case.mapper("topk.TopK", TopKMapper.class, COUNT_RESULT, 0));
+        cases.add(Case.mapper("approx.ApproxCount", ApproxCountMapper.class, COMEDIES, 0));
+        cases.add(Case.mapper("mongo.MonthLog2", MonthLog2Mapper.class, ACCESS_LOG, 0));
+
+        // 리듀서(CountReducer를 상속받은 리듀서); 마지막 값은 측정한 입력 키 1개당 할당 크기
+        // AccessLogStatsReducer는 MultipleOutputs로 파일을 만들기 때문에 측정하지 않음
+        cases.add(Case.reducer("wc.WordCount reduce", WordCountReducer.class, 0));
+        cases.add(Case.reducer("cc.CharCount reduce", CharCountReducer.class, 0));
+        cases.add(Case.reducer("tool.WordCount2 reduce", WordCount2Reducer.class, 0));
+        cases.add(Case.reducer("cache.WordCount3 reduce", WordCount3Reducer.class, 0));
+        cases.add(Case.reducer("ip.IPCount reduce", IPCountReducer.class, 0));
+        cases.add(Case.reducer("combiner.IPCount2 reduce", IPCount2Reducer.class, 0));
+        cases.add(Case.reducer("success.ResultCount reduce", ResultCountReducer.class, 0));
+
+        boolean failed = false;
+
+        for (Case c : cases) {
+
+            long bytesPerRecord = measure(c);
+
+            boolean ok = bytesPerRecord <= c.budget;
+
+            System.out.printf("%-28s %8d bytes/%s (budget %d) %s, output records %d%n", c.name, bytesPerRecord,
+                    c.mapperClass != null ? "record" : "key", c.budget, ok ? "OK" : "FAIL", c.outputRecords);
+
+            if (!ok) {
+                failed = true;
+            }
+
+        }
+
+        System.exit(failed ? 1 : 0);
+
+    }
+
+    /**
+     * 매퍼나 리듀서를 실행하여 레코드(리듀서는 입력 키) 1건당 할당한 메모리 크기 구하기
+     */
+    private static long measure(Case c) throws Exception {
+
+        byte[][] data = new byte[c.lines.length][];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = c.mapperClass != null ? c.lines[i].getBytes(StandardCharsets.UTF_8) : serialize(new Text(c.lines[i]));
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            run(c, data);
+        }
+
+        // 리듀서는 입력 키 1개당 할당 크기
+        long records = c.mapperClass != null ? RECORDS : RECORDS / VALUES_PER_KEY;
+
+        return run(c, data) / records;
+
+    }
+
+    private static long run(Case c, byte[][] data) throws Exception {
+        return c.mapperClass != null ? runMapper(c, data) : runReducer(c, data);
+
+    }
+
+    /**
+     * 매퍼 1개를 setup -> map -> cleanup 순서로 실행하고, 현재 쓰레드가 할당한 메모리 크기를 반환함
+     */
+    @SuppressWarnings("unchecked")
+    private static long runMapper(Case c, byte[][] data) throws Exception {
+
+        Configuration conf = new Configuration(false);
+        conf.set("AppName", "Allocation Check");
+        conf.setBoolean(CountMapper.IN_MAPPER_COMBINE, c.inMapperCombine);
+
+        // 하둡이 매퍼를 만들 때와 같이 ReflectionUtils로 만들기(Configurable이면 setConf도 호출됨)
+        Mapper<LongWritable, Text, Writable, Writable> mapper =
+                (Mapper<LongWritable, Text, Writable, Writable>) ReflectionUtils.newInstance(c.mapperClass, conf);
+
+        SerializingRecordWriter writer = new SerializingRecordWriter();
+
+        MapContextImpl<LongWritable, Text, Writable, Writable> mapContext = new MapContextImpl<>(conf, new TaskAttemptID(),
+                new ArrayRecordReader(data), writer, null, new CounterReporter(), null);
+
+        Mapper<LongWritable, Text, Writable, Writable>.Context context = new WrappedMapper<LongWritable, Text, Writable, Writable>()
+                .getMapContext(mapContext);
+
+        long before = allocatedBytes();
+
+        mapper.run(context);
+
+        long allocated = allocatedBytes() - before;
+
+        c.outputRecords = writer.records;
+
+        return allocated;
+
+    }
+
+    /**
+     * 리듀서 1개를 setup -> reduce -> cleanup 순서로 실행하고, 현재 쓰레드가 할당한 메모리 크기를 반환함
+     * 하둡의 리듀스 태스크와 같이 ReduceContextImpl이 직렬화된 (키, 값)을 읽어서 키가 같은 값을 묶어 reduce 함수에 전달함
+     */
+    @SuppressWarnings("unchecked")
+    private static long runReducer(Case c, byte[][] keys) throws Exception {
+
+        Configuration conf = new Configuration(false);
+        conf.set("AppName", "Allocation Check");
+
+        Reducer<Text, IntWritable, Writable, Writable> reducer =
+                (Reducer<Text, IntWritable, Writable, Writable>) ReflectionUtils.newInstance(c.reducerClass, conf);
+
+        SerializingRecordWriter writer = new SerializingRecordWriter();
+        CounterReporter reporter = new CounterReporter();
+
+        ReduceContextImpl<Text, IntWritable, Writable, Writable> reduceContext = new ReduceContextImpl<>(conf, new TaskAttemptID(),
+                new GroupedKeyValueIterator(keys), reporter.getCounter("check", "inputKeys"), reporter.getCounter("check", "inputValues"),
+                writer, null, reporter, WritableComparator.get(Text.class), Text.class, IntWritable.class);
+
+        Reducer<Text, IntWritable, Writable, Writable>.Context context = new WrappedReducer<Text, IntWritable, Writable, Writable>()
+                .getReducerContext(reduceContext);
+
+        long before = allocatedBytes();
+
+        reducer.run(context);
+
+        long allocated = allocatedBytes() - before;
+
+        c.outputRecords = writer.records;
+
+        return allocated;
+
+    }
+
+    /**
+     * 현재 쓰레드가 지금까지 할당한 메모리 크기(byte)
+     */
+    private static long allocatedBytes() {
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+    }
+
+    private static byte[] serialize(Writable writable) throws IOException {
+
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        writable.write(buffer);
+
+        return Arrays.copyOf(buffer.getData(), buffer.getLength());
+
+    }
+
+    /**
+     * 샘플 데이터를 RECORDS 건만큼 반복해서 읽는 RecordReader
+     * LineRecordReader처럼 키와 값 객체를 재사용함
+     */
+    private static class ArrayRecordReader extends RecordReader<LongWritable, Text> {
+
+        private final byte[][] data;
+        private final LongWritable key = new LongWritable();
+        private final Text value = new Text();
+        private int pos = 0;
+
+        ArrayRecordReader(byte[][] data) {
+            this.data = data;
+        }
+
+        @Override
+        public void initialize(InputSplit split, TaskAttemptContext context) {
+        }
+
+        @Override
+        public boolean nextKeyValue() {
+
+            if (pos >= RECORDS) {
+                return false;
+            }
+
+            key.set(pos);
+            value.set(data[pos % data.length]);
+            pos++;
+
+            return true;
+
+        }
+
+        @Override
+        public LongWritable getCurrentKey() {
+            return key;
+        }
+
+        @Override
+        public Text getCurrentValue() {
+            return value;
+        }
+
+        @Override
+        public float getProgress() {
+            return (float) pos / RECORDS;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    /**
+     * Shuffle and Sort가 끝난 리듀서 입력처럼 키별로 묶인 (키, 빈도 수)를 RECORDS 건만큼 반복해서 읽는 RawKeyValueIterator
+     * 키 샘플을 차례대로 VALUES_PER_KEY 건씩 전달하고, 빈도 수는 1 ~ VALUES_PER_KEY 값을 전달함
+     */
+    private static class GroupedKeyValueIterator implements RawKeyValueIterator {
+
+        private final byte[][] keys;
+        private final byte[][] values = new byte[VALUES_PER_KEY][];
+
+        private final DataInputBuffer key = new DataInputBuffer();
+        private final DataInputBuffer value = new DataInputBuffer();
+        private final Progress progress = new Progress();
+
+        private int pos = 0;
+
+        GroupedKeyValueIterator(byte[][] keys) throws IOException {
+
+            this.keys = keys;
+
+            for (int i = 0; i < VALUES_PER_KEY; i++) {
+                values[i] = serialize(new IntWritable(i + 1));
+            }
+
+        }
+
+        @Override
+        public DataInputBuffer getKey() {
+            return key;
+        }
+
+        @Override
+        public DataInputBuffer getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean next() {
+
+            if (pos >= RECORDS) {
+                return false;
+            }
+
+            byte[] k = keys[(pos / VALUES_PER_KEY) % keys.length];
+            byte[] v = values[pos % VALUES_PER_KEY];
+
+            key.reset(k, k.length);
+            value.reset(v, v.length);
+            pos++;
+
+            return true;
+
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Progress getProgress() {
+            return progress;
+        }
+
+    }
+
+    /**
+     * 맵 출력 버퍼처럼 키와 값을 직렬화만 하고 버리는 RecordWriter
+     */
+    private static class SerializingRecordWriter extends RecordWriter<Writable, Writable> {
+
+        private final DataOutputBuffer buffer = new DataOutputBuffer();
+        private long records = 0;
+
+        // 마지막으로 전달받은 키와 값; 매퍼나 리듀서가 레코드마다 만든 객체를 JIT(Escape Analysis)가 없애지 않도록 보관함
+        private Writable lastKey;
+        private Writable lastValue;
+
+        @Override
+        public void write(Writable key, Writable value) throws IOException {
+            records++;
+            lastKey = key;
+            lastValue = value;
+            buffer.reset();
+            key.write(buffer);
+            value.write(buffer);
+        }
+
+        @Override
+        public void close(TaskAttemptContext context) {
+        }
+
+    }
+
+    /**
+     * 매퍼에서 사용하는 Counter를 메모리에 저장하는 StatusReporter
+     */
+    private static class CounterReporter extends StatusReporter {
+
+        private final Counters counters = new Counters();
+
+        @Override
+        public Counter getCounter(Enum<?> name) {
+            return counters.findCounter(name);
+        }
+
+        @Override
+        public Counter getCounter(String group, String name) {
+            return counters.findCounter(group, name);
+        }
+
+        @Override
+        public void progress() {
+        }
+
+        @Override
+        public float getProgress() {
+            return 0;
+        }
+
+        @Override
+        public void setStatus(String status) {
+        }
+
+    }
+
+}
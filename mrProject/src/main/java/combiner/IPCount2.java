@@ -1,5 +1,8 @@
 package combiner;
 
+import common.io.IPv4Writable;
+import ip.IPCountPackedMapper;
+import ip.IPCountPackedReducer;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -8,6 +11,7 @@ import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.reduce.IntSumReducer;
 import org.apache.hadoop.util.Tool;
 import org.apache.hadoop.util.ToolRunner;
 
@@ -22,8 +26,10 @@ public class IPCount2 extends Configuration implements Tool {
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더)로 2개 받음
-        if (args.length != 2) {
-            System.out.printf("분석할 폴더(파일) 및 분석 결과가 저장될 폴더를 입력해야 합니다.");
+        // 세 번째 파라미터로 packed를 입력하면, IP를 32비트 정수로 변환하여 처리함(선택)
+        // 세 번째 파라미터는 packed만 허용함(잘못 입력하면 기본 방식으로 실행하지 않고 종료함)
+        if (args.length != 2 && !(args.length == 3 && "packed".equals(args[2]))) {
+            System.out.printf("분석할 폴더(파일) 및 분석 결과가 저장될 폴더를 입력해야 합니다. (선택 : packed)");
             System.exit(-1);
         }
 
@@ -82,16 +88,40 @@ public class IPCount2 extends Configuration implements Tool {
         // 분석 결과가 저장되는 폴더(파일) -- 두 번째 파라미터
         FileOutputFormat.setOutputPath(job, new Path(args[1]));
 
-        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
-        job.setMapperClass(IPCount2Mapper.class);
+        // IP를 32비트 정수로 변환하여 처리할지 여부 -- 세 번째 파라미터(선택)
+        boolean packed = args.length == 3 && "packed".equals(args[2]);
 
-        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
-        job.setReducerClass(IPCount2Reducer.class);
+        if (packed) {
 
-        // 미니 리듀서(mini-Reducer)라 부르며, Combiner 수행 설정
-        // 보통 Reducer 역할을 수행하는 객체를 바인딩 함
-        // 실제 데이터가 저장된 데이터 노드에서 실행됨
-        job.setCombinerClass(IPCount2Reducer.class);
+            // IP를 정수(IPv4Writable)로 변환하고, 매퍼 안에서 빈도 수를 먼저 합치는 Mapper 설정
+            // IPv4Writable은 IP의 숫자 순서로 정렬되기 때문에 결과 파일도 숫자 순서로 저장됨
+            job.setMapperClass(IPCountPackedMapper.class);
+
+            // 리듀서는 정수 IP를 점(.)으로 구분된 형태로 되돌려서 결과 파일에 저장함
+            job.setReducerClass(IPCountPackedReducer.class);
+
+            // 컴바이너는 리듀서와 달리 정수 IP를 그대로 전달해야 하기 때문에 하둡이 제공하는 IntSumReducer 사용
+            job.setCombinerClass(IntSumReducer.class);
+
+            // Shuffle and Sort로 전달할 키(IP)와 값(빈도 수)의 데이터 타입
+            // 결과 파일의 데이터 타입(Text, IntWritable)과 다르기 때문에 별도로 설정함
+            job.setMapOutputKeyClass(IPv4Writable.class);
+            job.setMapOutputValueClass(IntWritable.class);
+
+        } else {
+
+            // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+            job.setMapperClass(IPCount2Mapper.class);
+
+            // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+            job.setReducerClass(IPCount2Reducer.class);
+
+            // 미니 리듀서(mini-Reducer)라 부르며, Combiner 수행 설정
+            // 보통 Reducer 역할을 수행하는 객체를 바인딩 함
+            // 실제 데이터가 저장된 데이터 노드에서 실행됨
+            job.setCombinerClass(IPCount2Reducer.class);
+
+        }
 
         // 분석 결과가 저장될 때 사용될 키(key)의 데이터 타입
         job.setOutputKeyClass(Text.class);
@@ -1,18 +1,19 @@
 package combiner;
 
+import common.mapreduce.CountReducer;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Reducer;
 
 import java.io.IOException;
 
 /**
  * 리듀스 역할을 수행하기 위해서는 Reducer 자바 파일을 상속받아야 함
+ * 결과 값(IntWritable) 객체를 재사용하기 위해 Reducer를 상속받은 CountReducer를 상속받음
  * Reducer 파일의 앞의 2개 데이터 타입(Text, IntWritable)은 Shuffle and Sort에 보낸 데이터의 키(key)와 값(value)의 데이터 타입
  * 보통 Mapper에서 보낸 데이터 타입과 동일함
  * Reducer 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 결과 파일 생성에 사용될 키(key)와 값(value)
  */
-public class IPCount2Reducer extends Reducer<Text, IntWritable, Text, IntWritable> {
+public class IPCount2Reducer extends CountReducer<Text, IntWritable> {
 
     /**
      * 부모 Reducer 자바 파일에 작성된 reduce 함수를 덮어쓰기(Override) 수행
@@ -36,8 +37,8 @@ public class IPCount2Reducer extends Reducer<Text, IntWritable, Text, IntWritabl
             ipCount += value.get();
         }
 
-        // 분석 결과 파일에 데이터 저장하기
-        context.write(key, new IntWritable(ipCount));
+        // 분석 결과 파일에 데이터 저장하기(결과 값 객체는 재사용)
+        writeCount(context, key, ipCount);
 
     }
 
@@ -0,0 +1,324 @@
+package common.cache;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분산 캐시(Distributed Cache)에 올린 사전 파일(불용어, IP 차단 목록 등)로 키를 조회하는 객체
+ *
+ * Driver 파일에서 addToJob 함수로 사전 파일을 "#이름" 형태로 캐시에 올리면, 태스크의 작업 폴더에 같은 이름의 링크가 생김
+ * 매퍼는 setup 함수에서 get 함수로 사전을 가져오고, map 함수에서 contains 함수로 키를 조회하여 Shuffle and Sort로 보내기 전에 걸러냄
+ *
+ * 사전 파일 형식 : 한 줄에 1개(앞뒤 공백 제거), 빈 줄과 #으로 시작하는 줄은 무시
+ *
+ * 사전은 JVM마다 1번만 만들고, 같은 JVM에서 실행되는 태스크(로컬 모드, Uber 모드 등)는 같은 객체를 공유함
+ * 작업 폴더의 링크 파일은 메모리 맵(Memory-Mapped File)으로 읽고, 모든 키를 정렬된 바이트 배열 1개에 저장함
+ * 키마다 String, HashSet 항목을 만들지 않기 때문에 메모리를 적게 사용하고, 조회는 이진 탐색으로 객체를 만들지 않음
+ */
+public class CachedDictionary {
+
+    // 캐시 파일 이름(링크 이름)과 Configuration 변수 이름에 사용하는 사전 이름
+    public static final String STOPWORDS = "stopwords";
+    public static final String IP_BLOCKLIST = "ipBlocklist";
+    public static final String URI_ALLOWLIST = "uriAllowlist";
+
+    // 사전 파일 경로를 저장하는 Configuration 변수 이름의 앞부분 ex) dictionary.stopwords
+    private static final String CONF_PREFIX = "dictionary.";
+
+    // JVM마다 1번만 만든 사전; 키 : 사전 파일 경로 + 대소문자 구분 여부
+    private static final Map<String, CachedDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+    // 정렬된 키를 이어 붙인 배열과 키별 시작 위치(마지막 값은 전체 길이)
+    private final byte[] data;
+    private final int[] offsets;
+
+    // 영문 대소문자를 구분하지 않고 조회할지 여부(사전의 키는 소문자로 저장됨)
+    private final boolean ignoreCase;
+
+    private CachedDictionary(byte[] data, int[] offsets, boolean ignoreCase) {
+        this.data = data;
+        this.offsets = offsets;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * 사전 파일을 분산 캐시에 올리기(Driver 파일에서 사용)
+     *
+     * @param name 사전 이름 ex) CachedDictionary.STOPWORDS
+     * @param file 하둡분산파일시스템에 저장된 사전 파일 ex) /stopwords.txt
+     */
+    public static void addToJob(Job job, String name, Path file) throws IOException {
+
+        URI uri = file.getFileSystem(job.getConfiguration()).makeQualified(file).toUri();
+
+        try {
+            job.addCacheFile(new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), null, name));
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        job.getConfiguration().set(CONF_PREFIX + name, uri.toString());
+
+    }
+
+    /**
+     * 분산 캐시에 올린 사전 가져오기(매퍼의 setup 함수에서 사용)
+     *
+     * @param name       사전 이름
+     * @param ignoreCase 영문 대소문자를 구분하지 않고 조회할지 여부
+     * @return Driver 파일에서 사전 파일을 올리지 않았으면 null
+     */
+    public static CachedDictionary get(JobContext context, String name, boolean ignoreCase) throws IOException {
+
+        Configuration conf = context.getConfiguration();
+        String file = cacheFile(conf, name);
+
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            return DICTIONARIES.computeIfAbsent(file + "#" + ignoreCase, k -> {
+                try {
+                    return load(conf, name, new Path(file), ignoreCase);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+    }
+
+    /**
+     * 키가 사전에 있는지 조회하기
+     */
+    public boolean contains(byte[] bytes, int start, int length) {
+
+        int low = 0;
+        int high = this.size() - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int c = this.compare(mid, bytes, start, length);
+
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+
+        }
+
+        return false;
+
+    }
+
+    public int size() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * i번째 키와 조회할 키 비교(대소문자를 구분하지 않으면 조회할 키의 영문 대문자를 소문자로 바꿔서 비교)
+     */
+    private int compare(int i, byte[] bytes, int start, int length) {
+
+        int s = this.offsets[i];
+        int len = this.offsets[i + 1] - s;
+
+        if (!this.ignoreCase) {
+            return WritableComparator.compareBytes(this.data, s, len, bytes, start, length);
+        }
+
+        int n = Math.min(len, length);
+
+        for (int j = 0; j < n; j++) {
+
+            int a = this.data[s + j] & 0xFF;
+            int b = toLower(bytes[start + j]) & 0xFF;
+
+            if (a != b) {
+                return a - b;
+            }
+
+        }
+
+        return len - length;
+
+    }
+
+    /**
+     * 사전 파일을 읽어서 정렬된 바이트 배열 만들기
+     */
+    private static CachedDictionary load(Configuration conf, String name, Path file, boolean ignoreCase) throws IOException {
+        return build(read(conf, name, file), ignoreCase);
+    }
+
+    /**
+     * Driver 파일에서 addToJob 함수로 올린 캐시 파일의 경로 가져오기(IP 대역 표 등 다른 캐시 객체에서도 사용)
+     *
+     * @return 올리지 않았으면 null
+     */
+    static String cacheFile(Configuration conf, String name) {
+        return conf.get(CONF_PREFIX + name);
+    }
+
+    /**
+     * 캐시 파일 읽기
+     * 작업 폴더에 링크 파일이 있으면 메모리 맵으로 읽고, 없으면(로컬 모드 등) 파일 시스템에서 읽음
+     */
+    static ByteBuffer read(Configuration conf, String name, Path file) throws IOException {
+
+        File local = new File(name);
+
+        if (local.isFile()) {
+
+            try (FileChannel channel = FileChannel.open(local.toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+        }
+
+        FileSystem fs = file.getFileSystem(conf);
+        byte[] bytes = new byte[(int) fs.getFileStatus(file).getLen()];
+
+        try (FSDataInputStream in = fs.open(file)) {
+            IOUtils.readFully(in, bytes, 0, bytes.length);
+        }
+
+        return ByteBuffer.wrap(bytes);
+
+    }
+
+    /**
+     * 줄 단위로 키를 읽어서 정렬하고, 중복을 제거한 후 바이트 배열 1개에 이어 붙이기
+     */
+    static CachedDictionary build(ByteBuffer buffer, boolean ignoreCase) {
+
+        int limit = buffer.limit();
+
+        // 1. 줄별 키를 읽어서 임시 배열에 저장(대소문자를 구분하지 않으면 소문자로 변환)
+        byte[] raw = new byte[limit];
+        int[] starts = new int[16];
+        int[] lengths = new int[16];
+        int count = 0;
+        int rawLength = 0;
+
+        int pos = 0;
+
+        while (pos < limit) {
+
+            int end = pos;
+
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+
+            int s = pos;
+            int e = end;
+
+            while (s < e && isSpace(buffer.get(s))) {
+                s++;
+            }
+
+            while (e > s && isSpace(buffer.get(e - 1))) {
+                e--;
+            }
+
+            if (e > s && buffer.get(s) != '#') {
+
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+
+                starts[count] = rawLength;
+                lengths[count] = e - s;
+                count++;
+
+                for (int i = s; i < e; i++) {
+                    raw[rawLength++] = ignoreCase ? toLower(buffer.get(i)) : buffer.get(i);
+                }
+
+            }
+
+            pos = end + 1;
+
+        }
+
+        // 2. 키 번호를 바이트 순서로 정렬
+        final int[] st = starts;
+        final int[] ln = lengths;
+
+        Integer[] order = new Integer[count];
+
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> WritableComparator.compareBytes(raw, st[a], ln[a], raw, st[b], ln[b]));
+
+        // 3. 정렬된 순서로 이어 붙이기(같은 키는 1번만 저장)
+        byte[] data = new byte[rawLength];
+        int[] offsets = new int[count + 1];
+        int size = 0;
+        int dataLength = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            int k = order[i];
+
+            if (size > 0) {
+
+                int prev = offsets[size - 1];
+
+                if (WritableComparator.compareBytes(data, prev, dataLength - prev, raw, st[k], ln[k]) == 0) {
+                    continue;
+                }
+
+            }
+
+            offsets[size++] = dataLength;
+
+            System.arraycopy(raw, st[k], data, dataLength, ln[k]);
+            dataLength += ln[k];
+
+        }
+
+        offsets[size] = dataLength;
+
+        return new CachedDictionary(Arrays.copyOf(data, dataLength), Arrays.copyOf(offsets, size + 1), ignoreCase);
+
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+}
@@ -0,0 +1,322 @@
+package common.cache;
+
+import common.parser.AccessLogParser;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분산 캐시에 올린 IP 대역 표(시작 IP, 끝 IP, 지역/소유자)로 IP의 지역을 찾는 객체(Map-side Replicated Join)
+ *
+ * 로그와 IP 대역 표를 리듀서에서 조인(Reduce-side Join)하면 모든 로그가 Shuffle and Sort로 전달되지만
+ * 작은 IP 대역 표를 모든 매퍼에 복제하면, 매퍼에서 바로 지역을 찾아 붙일 수 있음
+ *
+ * IP 대역 표 파일 형식(CSV) : 시작 IP,끝 IP,지역 ex) 10.0.0.0,10.255.255.255,internal
+ *  - 끝 IP도 대역에 포함되고, 지역은 두 번째 쉼표 뒤의 나머지 전체(앞뒤 공백 제거)
+ *  - 빈 줄, #으로 시작하는 줄, IP 형태가 아닌 줄(헤더 등)은 무시
+ *  - 대역은 서로 겹치면 안 됨
+ *
+ * 대역은 시작 IP 순서로 정렬된 int 배열(시작 IP, 끝 IP, 지역 번호)에 저장하고, 레코드마다 이진 탐색으로 찾음
+ * 지역 이름은 중복을 제거하여 바이트 배열 1개에 이어 붙이기 때문에 조회할 때 객체를 만들지 않음
+ * 표는 CachedDictionary와 같이 JVM마다 1번만 만듦
+ */
+public class IPRangeTable {
+
+    // 캐시 파일 이름(링크 이름)과 Configuration 변수 이름에 사용하는 이름
+    public static final String IP_RANGES = "ipRanges";
+
+    // JVM마다 1번만 만든 IP 대역 표; 키 : 파일 경로
+    private static final Map<String, IPRangeTable> TABLES = new ConcurrentHashMap<>();
+
+    // 대역별 시작 IP, 끝 IP(부호 없는 값의 순서로 비교하기 위해 부호 비트를 뒤집어서 저장)와 지역 번호
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] regions;
+
+    // 지역 이름을 이어 붙인 배열과 지역별 시작 위치(마지막 값은 전체 길이)
+    private final byte[] names;
+    private final int[] nameOffsets;
+
+    private IPRangeTable(int[] starts, int[] ends, int[] regions, byte[] names, int[] nameOffsets) {
+        this.starts = starts;
+        this.ends = ends;
+        this.regions = regions;
+        this.names = names;
+        this.nameOffsets = nameOffsets;
+    }
+
+    /**
+     * IP 대역 표 파일을 분산 캐시에 올리기(Driver 파일에서 사용)
+     *
+     * @param file 하둡분산파일시스템에 저장된 IP 대역 표 파일 ex) /ip_ranges.csv
+     */
+    public static void addToJob(Job job, Path file) throws IOException {
+        CachedDictionary.addToJob(job, IP_RANGES, file);
+    }
+
+    /**
+     * 분산 캐시에 올린 IP 대역 표 가져오기(매퍼의 setup 함수에서 사용)
+     *
+     * @return Driver 파일에서 IP 대역 표 파일을 올리지 않았으면 null
+     */
+    public static IPRangeTable get(JobContext context) throws IOException {
+
+        Configuration conf = context.getConfiguration();
+        String file = CachedDictionary.cacheFile(conf, IP_RANGES);
+
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            return TABLES.computeIfAbsent(file, k -> {
+                try {
+                    return build(CachedDictionary.read(conf, IP_RANGES, new Path(file)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+    }
+
+    /**
+     * IP(32비트 정수)가 포함된 대역의 지역 번호 찾기
+     *
+     * @return 포함된 대역이 없으면 -1
+     */
+    public int lookup(int ip) {
+
+        int key = ip ^ Integer.MIN_VALUE;
+
+        // 시작 IP가 key 이하인 마지막 대역 찾기
+        int low = 0;
+        int high = this.starts.length - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+
+            if (this.starts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+
+        }
+
+        // high : 시작 IP가 key 이하인 마지막 대역(없으면 -1)
+        if (high < 0 || this.ends[high] < key) {
+            return -1;
+        }
+
+        return this.regions[high];
+
+    }
+
+    /**
+     * 대역 수
+     */
+    public int size() {
+        return this.starts.length;
+    }
+
+    /**
+     * 지역 수(중복 제거)
+     */
+    public int regionCount() {
+        return this.nameOffsets.length - 1;
+    }
+
+    /**
+     * 지역 이름이 저장된 배열(regionStart, regionLength와 함께 사용)
+     */
+    public byte[] getRegionBytes() {
+        return this.names;
+    }
+
+    public int regionStart(int region) {
+        return this.nameOffsets[region];
+    }
+
+    public int regionLength(int region) {
+        return this.nameOffsets[region + 1] - this.nameOffsets[region];
+    }
+
+    public String regionAsString(int region) {
+        return new String(this.names, this.regionStart(region), this.regionLength(region), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * CSV 파일을 줄 단위로 읽어서 시작 IP 순서로 정렬된 대역 배열 만들기
+     */
+    static IPRangeTable build(ByteBuffer buffer) throws IOException {
+
+        // 파일을 바이트 배열로 복사(메모리 맵은 IP 변환 함수에 바로 넘길 수 없음)
+        byte[] b = new byte[buffer.remaining()];
+        buffer.duplicate().get(b);
+
+        int limit = b.length;
+
+        // 1. 줄별 대역 읽기; 정렬용 키 = 부호 비트를 뒤집은 시작 IP << 32 | 줄 번호(long의 순서 = IP의 숫자 순서)
+        long[] keys = new long[16];
+        int[] ends = new int[16];
+        int[] regions = new int[16];
+        int count = 0;
+
+        // 지역 이름별 번호(표를 만들 때만 사용)와 지역 이름을 이어 붙인 배열
+        Map<String, Integer> regionIds = new HashMap<>();
+        byte[] names = new byte[256];
+        int[] nameOffsets = new int[16];
+        int namesLength = 0;
+
+        int pos = 0;
+
+        while (pos < limit) {
+
+            int end = pos;
+
+            while (end < limit && b[end] != '\n') {
+                end++;
+            }
+
+            int lineStart = pos;
+            pos = end + 1;
+
+            // 시작 IP, 끝 IP, 지역을 쉼표로 나누기
+            int c1 = indexOf(b, (byte) ',', lineStart, end);
+            int c2 = c1 < 0 ? -1 : indexOf(b, (byte) ',', c1 + 1, end);
+
+            if (c2 < 0) {
+                continue;
+            }
+
+            long first = AccessLogParser.parseIpv4(b, trimStart(b, lineStart, c1), trimEnd(b, lineStart, c1));
+            long last = AccessLogParser.parseIpv4(b, trimStart(b, c1 + 1, c2), trimEnd(b, c1 + 1, c2));
+
+            // 헤더, 주석 등 IP 형태가 아닌 줄은 무시
+            if (first < 0 || last < 0) {
+                continue;
+            }
+
+            if (first > last) {
+                throw new IOException("invalid ip range : " + new String(b, lineStart, end - lineStart, StandardCharsets.UTF_8).trim());
+            }
+
+            int s = trimStart(b, c2 + 1, end);
+            int e = trimEnd(b, s, end);
+            String name = new String(b, s, e - s, StandardCharsets.UTF_8);
+
+            Integer region = regionIds.get(name);
+
+            if (region == null) {
+
+                region = regionIds.size();
+                regionIds.put(name, region);
+
+                if (region + 2 > nameOffsets.length) {
+                    nameOffsets = Arrays.copyOf(nameOffsets, nameOffsets.length * 2);
+                }
+
+                if (namesLength + (e - s) > names.length) {
+                    names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + (e - s)));
+                }
+
+                System.arraycopy(b, s, names, namesLength, e - s);
+                namesLength += e - s;
+
+                nameOffsets[region + 1] = namesLength;
+
+            }
+
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                regions = Arrays.copyOf(regions, count * 2);
+            }
+
+            keys[count] = (first ^ 0x80000000L) << 32 | count;
+            ends[count] = (int) last;
+            regions[count] = region;
+            count++;
+
+        }
+
+        // 2. 시작 IP 순서로 정렬(long 배열을 정렬하기 때문에 객체를 만들지 않음)
+        Arrays.sort(keys, 0, count);
+
+        int[] sortedStarts = new int[count];
+        int[] sortedEnds = new int[count];
+        int[] sortedRegions = new int[count];
+
+        for (int i = 0; i < count; i++) {
+
+            int row = (int) keys[i];
+
+            sortedStarts[i] = (int) (keys[i] >> 32);
+            sortedEnds[i] = ends[row] ^ Integer.MIN_VALUE;
+            sortedRegions[i] = regions[row];
+
+            // 겹치는 대역이 있으면 이진 탐색으로 찾을 수 없음
+            if (i > 0 && sortedStarts[i] <= sortedEnds[i - 1]) {
+                byte[] ip = new byte[15];
+                int length = AccessLogParser.formatIp(sortedStarts[i] ^ Integer.MIN_VALUE, ip);
+
+                throw new IOException("overlapping ip ranges : " + new String(ip, 0, length, StandardCharsets.US_ASCII));
+            }
+
+        }
+
+        return new IPRangeTable(sortedStarts, sortedEnds, sortedRegions, Arrays.copyOf(names, namesLength), Arrays.copyOf(nameOffsets, regionIds.size() + 1));
+
+    }
+
+    private static int indexOf(byte[] b, byte c, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            if (b[i] == c) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    private static int trimStart(byte[] b, int from, int to) {
+
+        while (from < to && isSpace(b[from])) {
+            from++;
+        }
+
+        return from;
+
+    }
+
+    private static int trimEnd(byte[] b, int from, int to) {
+
+        while (to > from && isSpace(b[to - 1])) {
+            to--;
+        }
+
+        return to;
+
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+}
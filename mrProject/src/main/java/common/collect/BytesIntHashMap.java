@@ -0,0 +1,269 @@
+package common.collect;
+
+import java.util.Arrays;
+
+/**
+ * 바이트 배열(단어 등)을 키로, int 값(빈도 수)을 값으로 저장하는 해시 테이블
+ *
+ * HashMap<String, Integer>는 키마다 String, Integer, Entry 객체를 만들기 때문에 매퍼에서 사용하면 가비지가 많이 생김
+ * 이 객체는 키의 바이트를 하나의 큰 배열(keyData)에 이어 붙여 저장하고, 위치/길이/값은 int 배열에 저장함
+ * 충돌은 다음 칸을 찾아가는 개방 주소법(Open Addressing, Linear Probing)으로 처리함
+ *
+ * 저장된 항목은 0 ~ size()-1 번호로 접근할 수 있어서 Iterator 객체 없이 순회 가능함
+ * ex) for (int i = 0; i < map.size(); i++) { map.getKeyData(), map.keyStart(i), map.keyLength(i), map.value(i) }
+ */
+public class BytesIntHashMap {
+
+    // 해시 테이블 칸이 이 비율보다 많이 차면 테이블 크기를 2배로 늘림
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 해시 테이블(항목 번호 + 1을 저장하며, 0이면 빈 칸)
+    private int[] slots;
+
+    // 항목별 키 위치, 키 길이, 해시 값, 값
+    private int[] keyStarts;
+    private int[] keyLengths;
+    private int[] hashes;
+    private int[] values;
+
+    // 모든 키의 바이트를 이어 붙여 저장하는 배열
+    private byte[] keyData;
+    private int keyDataLength;
+
+    // 저장된 항목 수
+    private int size;
+
+    public BytesIntHashMap() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize 예상되는 항목 수(부족하면 자동으로 늘어남)
+     */
+    public BytesIntHashMap(int expectedSize) {
+
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+
+        this.slots = new int[capacity];
+        this.keyStarts = new int[expectedSize];
+        this.keyLengths = new int[expectedSize];
+        this.hashes = new int[expectedSize];
+        this.values = new int[expectedSize];
+        this.keyData = new byte[expectedSize * 8];
+
+    }
+
+    /**
+     * 키에 값을 더하기(키가 없으면 새로 추가함)
+     *
+     * @return 더한 후의 값
+     */
+    public int add(byte[] bytes, int start, int length, int delta) {
+
+        int hash = hash(bytes, start, length);
+        int mask = this.slots.length - 1;
+        int slot = hash & mask;
+
+        while (true) {
+
+            int entry = this.slots[slot] - 1;
+
+            // 빈 칸이면 새로운 항목 추가
+            if (entry < 0) {
+                break;
+            }
+
+            if (this.hashes[entry] == hash && this.equalsKey(entry, bytes, start, length)) {
+                return this.values[entry] += delta;
+            }
+
+            slot = (slot + 1) & mask;
+
+        }
+
+        int entry = this.append(bytes, start, length, hash, delta);
+
+        this.slots[slot] = entry + 1;
+
+        if (this.size > this.slots.length * LOAD_FACTOR) {
+            this.rehash(this.slots.length << 1);
+        }
+
+        return delta;
+
+    }
+
+    /**
+     * 키에 저장된 값 가져오기
+     *
+     * @return 키가 없으면 0
+     */
+    public int get(byte[] bytes, int start, int length) {
+
+        int hash = hash(bytes, start, length);
+        int mask = this.slots.length - 1;
+        int slot = hash & mask;
+
+        while (true) {
+
+            int entry = this.slots[slot] - 1;
+
+            if (entry < 0) {
+                return 0;
+            }
+
+            if (this.hashes[entry] == hash && this.equalsKey(entry, bytes, start, length)) {
+                return this.values[entry];
+            }
+
+            slot = (slot + 1) & mask;
+
+        }
+
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // 항목별 키, 값 가져오기(0 <= i < size())
+    public byte[] getKeyData() {
+        return this.keyData;
+    }
+
+    public int keyStart(int i) {
+        return this.keyStarts[i];
+    }
+
+    public int keyLength(int i) {
+        return this.keyLengths[i];
+    }
+
+    public int value(int i) {
+        return this.values[i];
+    }
+
+    /**
+     * 현재 사용 중인 메모리 크기(byte) 추정 값
+     * 배열에 실제로 저장된 항목 기준이며, 여유 공간까지 포함하면 최대 2배까지 사용할 수 있음
+     */
+    public long memoryBytes() {
+        return (long) this.slots.length * 4 + (long) this.size * 16 + this.keyDataLength;
+    }
+
+    /**
+     * 모든 항목 삭제
+     * 다시 채울 때 배열을 새로 만들지 않도록 배열은 그대로 유지함
+     */
+    public void clear() {
+
+        if (this.size > 0) {
+            Arrays.fill(this.slots, 0);
+        }
+
+        this.size = 0;
+        this.keyDataLength = 0;
+
+    }
+
+    /**
+     * 키와 값을 배열의 끝에 추가하고 항목 번호 반환
+     */
+    private int append(byte[] bytes, int start, int length, int hash, int value) {
+
+        int entry = this.size;
+
+        if (entry == this.values.length) {
+            int n = entry << 1;
+            this.keyStarts = Arrays.copyOf(this.keyStarts, n);
+            this.keyLengths = Arrays.copyOf(this.keyLengths, n);
+            this.hashes = Arrays.copyOf(this.hashes, n);
+            this.values = Arrays.copyOf(this.values, n);
+        }
+
+        if (this.keyDataLength + length > this.keyData.length) {
+            this.keyData = Arrays.copyOf(this.keyData, Math.max(this.keyData.length << 1, this.keyDataLength + length));
+        }
+
+        System.arraycopy(bytes, start, this.keyData, this.keyDataLength, length);
+
+        this.keyStarts[entry] = this.keyDataLength;
+        this.keyLengths[entry] = length;
+        this.hashes[entry] = hash;
+        this.values[entry] = value;
+
+        this.keyDataLength += length;
+        this.size++;
+
+        return entry;
+
+    }
+
+    /**
+     * 해시 테이블 크기를 늘리고, 저장된 항목을 다시 배치함(키 바이트는 이동하지 않음)
+     */
+    private void rehash(int capacity) {
+
+        int[] newSlots = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int entry = 0; entry < this.size; entry++) {
+
+            int slot = this.hashes[entry] & mask;
+
+            while (newSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            newSlots[slot] = entry + 1;
+
+        }
+
+        this.slots = newSlots;
+
+    }
+
+    private boolean equalsKey(int entry, byte[] bytes, int start, int length) {
+
+        if (this.keyLengths[entry] != length) {
+            return false;
+        }
+
+        byte[] data = this.keyData;
+        int pos = this.keyStarts[entry];
+
+        for (int i = 0; i < length; i++) {
+            if (data[pos + i] != bytes[start + i]) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * 바이트 배열의 해시 값
+     * 비슷한 단어가 인접한 칸에 몰리지 않도록 마지막에 비트를 섞어줌
+     */
+    private static int hash(byte[] bytes, int start, int length) {
+
+        int h = 1;
+
+        for (int i = start; i < start + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+
+        return h;
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package common.collect;
+
+import java.util.Arrays;
+
+/**
+ * int 값(IP 등)을 키로, int 값(빈도 수)을 값으로 저장하는 해시 테이블
+ *
+ * HashMap<Integer, Integer>는 키와 값마다 Integer, Entry 객체를 만들기 때문에 매퍼에서 사용하면 가비지가 많이 생김
+ * 이 객체는 키와 값을 int 배열에 저장하고, 충돌은 다음 칸을 찾아가는 개방 주소법(Open Addressing, Linear Probing)으로 처리함
+ *
+ * 저장된 항목은 0 ~ size()-1 번호로 접근할 수 있어서 Iterator 객체 없이 순회 가능함
+ * ex) for (int i = 0; i < map.size(); i++) { map.key(i), map.value(i) }
+ */
+public class IntIntHashMap {
+
+    // 해시 테이블 칸이 이 비율보다 많이 차면 테이블 크기를 2배로 늘림
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 해시 테이블(항목 번호 + 1을 저장하며, 0이면 빈 칸)
+    // 0도 키로 사용할 수 있도록 키를 직접 저장하지 않고 항목 번호를 저장함
+    private int[] slots;
+
+    // 항목별 키와 값
+    private int[] keys;
+    private int[] values;
+
+    // 저장된 항목 수
+    private int size;
+
+    public IntIntHashMap() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize 예상되는 항목 수(부족하면 자동으로 늘어남)
+     */
+    public IntIntHashMap(int expectedSize) {
+
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+
+        this.slots = new int[capacity];
+        this.keys = new int[expectedSize];
+        this.values = new int[expectedSize];
+
+    }
+
+    /**
+     * 키에 값을 더하기(키가 없으면 새로 추가함)
+     *
+     * @return 더한 후의 값
+     */
+    public int add(int key, int delta) {
+
+        int mask = this.slots.length - 1;
+        int slot = hash(key) & mask;
+
+        while (true) {
+
+            int entry = this.slots[slot] - 1;
+
+            // 빈 칸이면 새로운 항목 추가
+            if (entry < 0) {
+                break;
+            }
+
+            if (this.keys[entry] == key) {
+                return this.values[entry] += delta;
+            }
+
+            slot = (slot + 1) & mask;
+
+        }
+
+        int entry = this.size;
+
+        if (entry == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, entry << 1);
+            this.values = Arrays.copyOf(this.values, entry << 1);
+        }
+
+        this.keys[entry] = key;
+        this.values[entry] = delta;
+        this.size++;
+
+        this.slots[slot] = entry + 1;
+
+        if (this.size > this.slots.length * LOAD_FACTOR) {
+            this.rehash(this.slots.length << 1);
+        }
+
+        return delta;
+
+    }
+
+    /**
+     * 키에 저장된 값 가져오기
+     *
+     * @return 키가 없으면 0
+     */
+    public int get(int key) {
+
+        int mask = this.slots.length - 1;
+        int slot = hash(key) & mask;
+
+        while (true) {
+
+            int entry = this.slots[slot] - 1;
+
+            if (entry < 0) {
+                return 0;
+            }
+
+            if (this.keys[entry] == key) {
+                return this.values[entry];
+            }
+
+            slot = (slot + 1) & mask;
+
+        }
+
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // 항목별 키, 값 가져오기(0 <= i < size())
+    public int key(int i) {
+        return this.keys[i];
+    }
+
+    public int value(int i) {
+        return this.values[i];
+    }
+
+    /**
+     * 현재 사용 중인 메모리 크기(byte) 추정 값
+     */
+    public long memoryBytes() {
+        return (long) this.slots.length * 4 + (long) this.size * 8;
+    }
+
+    /**
+     * 모든 항목 삭제
+     * 다시 채울 때 배열을 새로 만들지 않도록 배열은 그대로 유지함
+     */
+    public void clear() {
+
+        if (this.size > 0) {
+            Arrays.fill(this.slots, 0);
+        }
+
+        this.size = 0;
+
+    }
+
+    /**
+     * 해시 테이블 크기를 늘리고, 저장된 항목을 다시 배치함
+     */
+    private void rehash(int capacity) {
+
+        int[] newSlots = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int entry = 0; entry < this.size; entry++) {
+
+            int slot = hash(this.keys[entry]) & mask;
+
+            while (newSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            newSlots[slot] = entry + 1;
+
+        }
+
+        this.slots = newSlots;
+
+    }
+
+    /**
+     * int 값의 해시 값
+     * 같은 대역의 IP(앞자리가 같은 값)가 인접한 칸에 몰리지 않도록 비트를 섞어줌
+     */
+    private static int hash(int key) {
+
+        int h = key * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+
+    }
+
+}
@@ -0,0 +1,200 @@
+package common.collect;
+
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * (키 바이트, 빈도 수) 중 빈도 수가 큰 K개만 남기는 최소 힙(min-heap)
+ *
+ * 전체 결과를 정렬하지 않고, 지금까지의 K번째 항목(힙의 루트)보다 큰 항목만 루트와 바꿔서 메모리를 K개로 제한함
+ * 빈도 수가 같으면 키 바이트가 작은 항목을 남김(CountWordWritable의 정렬 순서와 같음)
+ *
+ * 키 바이트는 힙에 들어갈 때만 복사하고, 밀려난 항목의 배열은 크기가 충분하면 재사용하기 때문에
+ * 힙이 가득 찬 후에는 대부분의 offer 호출이 객체를 만들지 않음
+ *
+ * 사용 순서 : offer로 항목 추가 -> sort로 빈도 수가 큰 순서로 정렬 -> 0 ~ size()-1 번호로 조회 -> clear
+ */
+public class TopKHeap {
+
+    // 남길 항목 수
+    private final int k;
+
+    // 항목별 빈도 수와 키 바이트(keys 배열은 재사용되기 때문에 실제 길이는 lengths에 저장)
+    private final int[] counts;
+    private final byte[][] keys;
+    private final int[] lengths;
+
+    // 저장된 항목 수
+    private int size;
+
+    public TopKHeap(int k) {
+
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive : " + k);
+        }
+
+        this.k = k;
+        this.counts = new int[k];
+        this.keys = new byte[k][];
+        this.lengths = new int[k];
+
+    }
+
+    /**
+     * 항목 추가하기
+     *
+     * @return 힙에 들어갔으면 true, K번째 항목보다 작아서 버렸으면 false
+     */
+    public boolean offer(byte[] bytes, int start, int length, int count) {
+
+        int i;
+
+        if (this.size < this.k) {
+
+            i = this.size++;
+
+        } else {
+
+            // 루트(K번째 항목)보다 작거나 같으면 버림
+            if (this.compare(count, bytes, start, length, 0) <= 0) {
+                return false;
+            }
+
+            i = 0;
+
+        }
+
+        byte[] key = this.keys[i];
+
+        if (key == null || key.length < length) {
+            key = new byte[Math.max(length, 16)];
+            this.keys[i] = key;
+        }
+
+        System.arraycopy(bytes, start, key, 0, length);
+
+        this.counts[i] = count;
+        this.lengths[i] = length;
+
+        if (i == 0 && this.size == this.k) {
+            this.siftDown(0, this.size);
+        } else {
+            this.siftUp(i);
+        }
+
+        return true;
+
+    }
+
+    /**
+     * 빈도 수가 큰 순서로 정렬하기(힙 정렬)
+     * 정렬 후에는 힙 구조가 깨지기 때문에 더 이상 offer를 호출하면 안 됨(clear 후에는 가능)
+     */
+    public void sort() {
+
+        for (int end = this.size - 1; end > 0; end--) {
+
+            // 가장 작은 항목(루트)을 뒤로 보내면, 앞에서부터 큰 순서가 됨
+            this.swap(0, end);
+            this.siftDown(0, end);
+
+        }
+
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int count(int i) {
+        return this.counts[i];
+    }
+
+    public byte[] keyBytes(int i) {
+        return this.keys[i];
+    }
+
+    public int keyLength(int i) {
+        return this.lengths[i];
+    }
+
+    /**
+     * 모든 항목 지우기(키 배열은 재사용을 위해 남겨둠)
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * 새 항목과 i번째 항목 비교; 빈도 수가 작거나, 빈도 수가 같고 키가 크면 작은 항목
+     */
+    private int compare(int count, byte[] bytes, int start, int length, int i) {
+
+        int c = Integer.compare(count, this.counts[i]);
+
+        return c != 0 ? c : WritableComparator.compareBytes(this.keys[i], 0, this.lengths[i], bytes, start, length);
+
+    }
+
+    private int compare(int a, int b) {
+        return this.compare(this.counts[a], this.keys[a], 0, this.lengths[a], b);
+    }
+
+    private void siftUp(int i) {
+
+        while (i > 0) {
+
+            int parent = (i - 1) >>> 1;
+
+            if (this.compare(i, parent) >= 0) {
+                break;
+            }
+
+            this.swap(i, parent);
+            i = parent;
+
+        }
+
+    }
+
+    private void siftDown(int i, int end) {
+
+        while (true) {
+
+            int child = 2 * i + 1;
+
+            if (child >= end) {
+                break;
+            }
+
+            if (child + 1 < end && this.compare(child + 1, child) < 0) {
+                child++;
+            }
+
+            if (this.compare(child, i) >= 0) {
+                break;
+            }
+
+            this.swap(i, child);
+            i = child;
+
+        }
+
+    }
+
+    private void swap(int a, int b) {
+
+        int count = this.counts[a];
+        this.counts[a] = this.counts[b];
+        this.counts[b] = count;
+
+        byte[] key = this.keys[a];
+        this.keys[a] = this.keys[b];
+        this.keys[b] = key;
+
+        int length = this.lengths[a];
+        this.lengths[a] = this.lengths[b];
+        this.lengths[b] = length;
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package common.io;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * (빈도 수, 단어)를 저장하는 키(key) 데이터 타입
+ *
+ * WordCount 결과 파일은 단어 순서로 정렬되어 있어서, 많이 나온 단어를 찾으려면 결과 파일 전체를 다시 정렬해야 함
+ * 이 키는 빈도 수가 큰 순서 -> 빈도 수가 같으면 단어 순서로 정렬됨
+ *
+ * 직렬화 형태 : 빈도 수(4바이트) + 단어(Text; 길이(VInt) + UTF-8 바이트)
+ * Shuffle and Sort에서 정렬할 때는 아래의 Comparator가 직렬화된 바이트를 그대로 비교하기 때문에 객체로 되돌리지 않음
+ */
+public class CountWordWritable implements WritableComparable<CountWordWritable> {
+
+    private int count;
+
+    private final Text word = new Text();
+
+    public void set(int count, byte[] word, int start, int length) {
+        this.count = count;
+        this.word.set(word, start, length);
+    }
+
+    /**
+     * 빈도 수 결과 파일의 한 줄(키 탭 빈도 수)을 (빈도 수, 단어) 값으로 변환하기
+     * WordCount, IPCount 등 CountReducer로 저장한 결과 파일을 모두 읽을 수 있음
+     * String으로 변환하지 않고 바이트 배열에서 마지막 탭 위치를 찾아서 나눔
+     *
+     * @return 키 탭 빈도 수 형태가 아니면 false
+     */
+    public boolean parse(Text line) {
+
+        byte[] b = line.getBytes();
+        int length = line.getLength();
+
+        int tab = length - 1;
+
+        while (tab >= 0 && b[tab] != '\t') {
+            tab--;
+        }
+
+        if (tab <= 0 || tab == length - 1) {
+            return false;
+        }
+
+        int count = 0;
+
+        for (int i = tab + 1; i < length; i++) {
+
+            if (b[i] < '0' || b[i] > '9') {
+                return false;
+            }
+
+            count = count * 10 + (b[i] - '0');
+
+        }
+
+        this.set(count, b, 0, tab);
+
+        return true;
+
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public Text getWord() {
+        return this.word;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.count);
+        this.word.write(out);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        this.count = in.readInt();
+        this.word.readFields(in);
+    }
+
+    /**
+     * 빈도 수가 큰 순서, 빈도 수가 같으면 단어 순서로 비교
+     */
+    @Override
+    public int compareTo(CountWordWritable o) {
+
+        int c = Integer.compare(o.count, this.count);
+
+        return c != 0 ? c : this.word.compareTo(o.word);
+
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CountWordWritable && ((CountWordWritable) o).count == this.count && ((CountWordWritable) o).word.equals(this.word);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.count * 31 + this.word.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.count + "\t" + this.word;
+    }
+
+    /**
+     * Shuffle and Sort에서 직렬화된 (빈도 수, 단어)를 객체로 되돌리지 않고 비교하는 Comparator
+     */
+    public static class Comparator extends WritableComparator {
+
+        public Comparator() {
+            super(CountWordWritable.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+
+            // 빈도 수는 큰 순서로 비교
+            int c = Integer.compare(readInt(b2, s2), readInt(b1, s1));
+
+            if (c != 0) {
+                return c;
+            }
+
+            // 단어는 길이(VInt)를 건너뛰고 UTF-8 바이트를 비교(Text의 정렬 순서와 같음)
+            try {
+
+                int n1 = WritableUtils.decodeVIntSize(b1[s1 + 4]);
+                int n2 = WritableUtils.decodeVIntSize(b2[s2 + 4]);
+
+                int len1 = readVInt(b1, s1 + 4);
+                int len2 = readVInt(b2, s2 + 4);
+
+                return compareBytes(b1, s1 + 4 + n1, len1, b2, s2 + 4 + n2, len2);
+
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+
+        }
+
+    }
+
+    // 잡에서 CountWordWritable을 키로 사용하면, 하둡이 위의 Comparator를 찾아서 사용하도록 등록
+    static {
+        WritableComparator.define(CountWordWritable.class, new Comparator());
+    }
+
+}
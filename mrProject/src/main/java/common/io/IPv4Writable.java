@@ -0,0 +1,100 @@
+package common.io;
+
+import common.parser.AccessLogParser;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * IPv4 주소를 32비트 정수(4바이트)로 저장하는 키(key) 데이터 타입
+ *
+ * IP를 Text로 전달하면 길이가 7~15바이트로 다르고, 정렬할 때 문자열로 비교하기 때문에 10.0.0.2가 10.0.0.10보다 뒤에 옴
+ * 이 객체는 항상 4바이트로 직렬화되고, IP의 숫자 순서(0.0.0.0 ~ 255.255.255.255)대로 정렬됨
+ *
+ * Shuffle and Sort에서 정렬할 때는 아래의 Comparator가 직렬화된 4바이트를 그대로 비교하기 때문에 객체로 되돌리지 않음
+ * 결과 파일에 저장할 때는 toString() 함수로 96.7.4.14 형태로 저장됨
+ */
+public class IPv4Writable implements WritableComparable<IPv4Writable> {
+
+    // AccessLogParser가 변환한 32비트 정수 IP
+    private int ip;
+
+    public IPv4Writable() {
+    }
+
+    public IPv4Writable(int ip) {
+        this.ip = ip;
+    }
+
+    public void set(int ip) {
+        this.ip = ip;
+    }
+
+    public int get() {
+        return this.ip;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.ip);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        this.ip = in.readInt();
+    }
+
+    /**
+     * IP의 숫자 순서로 비교
+     * int는 부호가 있어서 128.0.0.0 이상의 IP가 음수가 되기 때문에 부호 없는 값으로 비교함
+     */
+    @Override
+    public int compareTo(IPv4Writable o) {
+        return Integer.compareUnsigned(this.ip, o.ip);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IPv4Writable && ((IPv4Writable) o).ip == this.ip;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.ip;
+    }
+
+    @Override
+    public String toString() {
+
+        byte[] buf = new byte[15];
+
+        return new String(buf, 0, AccessLogParser.formatIp(this.ip, buf), StandardCharsets.US_ASCII);
+
+    }
+
+    /**
+     * Shuffle and Sort에서 직렬화된 IP(4바이트)를 객체로 되돌리지 않고 비교하는 Comparator
+     */
+    public static class Comparator extends WritableComparator {
+
+        public Comparator() {
+            super(IPv4Writable.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            return Integer.compareUnsigned(readInt(b1, s1), readInt(b2, s2));
+        }
+
+    }
+
+    // 잡에서 IPv4Writable을 키로 사용하면, 하둡이 위의 Comparator를 찾아서 사용하도록 등록
+    static {
+        WritableComparator.define(IPv4Writable.class, new Comparator());
+    }
+
+}
@@ -0,0 +1,138 @@
+package common.mapreduce;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * (키, 빈도 수)를 Shuffle and Sort로 전달하는 Mapper들의 부모 객체
+ *
+ * context.write(new Text(word), new IntWritable(1))처럼 레코드마다 객체를 만들면
+ * 맵 태스크에서 가비지(Garbage)가 계속 쌓여 GC가 자주 발생함
+ * context.write()는 전달받은 값을 바로 직렬화(Serialize)하기 때문에 출력 객체는 태스크 동안 1개만 만들어 재사용해도 됨
+ *
+ * Driver 파일에서 inMapperCombine 값을 true로 설정하면, count 함수로 전달한 키는 바로 전달하지 않고
+ * 매퍼 안의 해시 테이블(InMapperCombiner)에서 빈도 수를 먼저 합친 후 cleanup 함수에서 한 번에 전달함(In-Mapper Combining)
+ * 같은 단어가 여러 번 나오는 문서는 Shuffle and Sort로 전달하는 레코드 수가 크게 줄어듦
+ * 해시 테이블이 inMapperMemoryMB 크기를 넘으면, 그때까지 합친 값을 먼저 전달하고 비운 후 계속 합침
+ */
+public abstract class CountMapper<KEYIN, VALUEIN> extends Mapper<KEYIN, VALUEIN, Text, IntWritable> {
+
+    // In-Mapper Combining 설정 값(Driver 파일에서 사용하는 이름; InMapperCombiner와 같음)
+    public static final String IN_MAPPER_COMBINE = InMapperCombiner.IN_MAPPER_COMBINE;
+    public static final String IN_MAPPER_MEMORY_MB = InMapperCombiner.IN_MAPPER_MEMORY_MB;
+    public static final int DEFAULT_IN_MAPPER_MEMORY_MB = InMapperCombiner.DEFAULT_IN_MAPPER_MEMORY_MB;
+
+    // Shuffle and Sort로 전달할 키(key); 태스크 동안 재사용
+    protected final Text outKey = new Text();
+
+    // Shuffle and Sort로 전달할 값(value); 태스크 동안 재사용
+    protected final IntWritable outValue = new IntWritable();
+
+    // In-Mapper Combining에 사용하는 해시 테이블(사용하지 않으면 null)
+    private InMapperCombiner combiner;
+
+    /**
+     * Driver 파일에서 정의한 In-Mapper Combining 설정 값 가져오기
+     * setup 함수를 구현하는 자식 객체는 super.setup(context)를 먼저 호출해야 함
+     */
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        // 합친 빈도 수는 IntWritable 값으로 전달함
+        this.combiner = InMapperCombiner.of(context.getConfiguration(),
+                (bytes, start, length, count) -> this.emit(context, bytes, start, length, count));
+
+    }
+
+    /**
+     * 해시 테이블에 남아있는 빈도 수를 모두 전달하기
+     * cleanup 함수를 구현하는 자식 객체는 super.cleanup(context)를 호출해야 함
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        this.flush(context);
+
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 키로 빈도 수(1) 세기
+     * In-Mapper Combining을 사용하면 해시 테이블에서 합치고, 사용하지 않으면 바로 전달함
+     */
+    protected void count(Context context, byte[] bytes, int start, int length) throws IOException, InterruptedException {
+
+        if (this.combiner == null) {
+            this.emit(context, bytes, start, length, 1);
+            return;
+        }
+
+        this.combiner.add(bytes, start, length, 1);
+
+    }
+
+    /**
+     * 해시 테이블에 합친 빈도 수를 Shuffle and Sort로 전달하고 비우기
+     */
+    protected void flush(Context context) throws IOException, InterruptedException {
+
+        if (this.combiner != null) {
+            this.combiner.flush();
+        }
+
+    }
+
+    /**
+     * 키와 빈도 수(1) 전달하기
+     */
+    protected void emit(Context context, Text key) throws IOException, InterruptedException {
+        this.emit(context, key, 1);
+    }
+
+    /**
+     * 키와 빈도 수 전달하기
+     */
+    protected void emit(Context context, Text key, int count) throws IOException, InterruptedException {
+
+        this.outValue.set(count);
+
+        context.write(key, this.outValue);
+
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 키로, 빈도 수(1)와 함께 전달하기
+     */
+    protected void emit(Context context, byte[] bytes, int start, int length) throws IOException, InterruptedException {
+        this.emit(context, bytes, start, length, 1);
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 키로, 빈도 수와 함께 전달하기
+     */
+    protected void emit(Context context, byte[] bytes, int start, int length, int count) throws IOException, InterruptedException {
+
+        this.outKey.set(bytes, start, length);
+
+        this.emit(context, this.outKey, count);
+
+    }
+
+    /**
+     * 문자열을 키로, 빈도 수(1)와 함께 전달하기
+     */
+    protected void emit(Context context, String key) throws IOException, InterruptedException {
+
+        this.outKey.set(key);
+
+        this.emit(context, this.outKey, 1);
+
+    }
+
+}
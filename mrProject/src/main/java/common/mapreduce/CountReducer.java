@@ -0,0 +1,30 @@
+package common.mapreduce;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 키(key)별 빈도 수를 결과 파일에 저장하는 Reducer들의 부모 객체
+ *
+ * context.write(key, new IntWritable(count))처럼 키마다 객체를 만들지 않고
+ * 결과 값 객체를 태스크 동안 1개만 만들어 재사용함
+ */
+public abstract class CountReducer<KEY, VALUEIN> extends Reducer<KEY, VALUEIN, KEY, IntWritable> {
+
+    // 결과 파일에 저장할 빈도 수; 태스크 동안 재사용
+    protected final IntWritable result = new IntWritable();
+
+    /**
+     * 키와 빈도 수를 결과 파일에 저장하기
+     */
+    protected void writeCount(Context context, KEY key, int count) throws IOException, InterruptedException {
+
+        this.result.set(count);
+
+        context.write(key, this.result);
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package common.mapreduce;
+
+import common.collect.BytesIntHashMap;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.IOException;
+
+/**
+ * 매퍼 안에서 바이트 키(단어, IP 등)의 빈도 수를 먼저 합치는 해시 테이블(In-Mapper Combining)
+ *
+ * 해시 테이블, 최대 메모리 크기 확인, 합친 값을 전달하고 비우는(flush) 로직을 한 곳에 모아서
+ * 출력 값의 데이터 타입이 다른 매퍼(CountMapper는 IntWritable, WordCount4Mapper는 LongWritable)가 같이 사용함
+ * 매퍼는 합친 (키, 빈도 수)를 Shuffle and Sort로 전달하는 방법(Emitter)만 정함
+ *
+ * Driver 파일에서 inMapperCombine 값을 true로 설정한 경우에만 만들어짐(of 함수 참고)
+ */
+public class InMapperCombiner {
+
+    // In-Mapper Combining 사용 여부를 저장하는 Configuration 변수 이름
+    public static final String IN_MAPPER_COMBINE = "inMapperCombine";
+
+    // 해시 테이블의 최대 메모리 크기(MB)를 저장하는 Configuration 변수 이름
+    public static final String IN_MAPPER_MEMORY_MB = "inMapperMemoryMB";
+
+    // 해시 테이블의 기본 최대 메모리 크기(MB)
+    public static final int DEFAULT_IN_MAPPER_MEMORY_MB = 64;
+
+    /**
+     * 합친 (키, 빈도 수)를 Shuffle and Sort로 전달하는 함수
+     * 키는 bytes 배열의 일부(start부터 length만큼)이며, 호출이 끝나면 배열 내용이 바뀔 수 있음
+     */
+    public interface Emitter {
+        void emit(byte[] bytes, int start, int length, int count) throws IOException, InterruptedException;
+    }
+
+    private final BytesIntHashMap counts = new BytesIntHashMap(1 << 16);
+
+    // 해시 테이블의 최대 메모리 크기(byte)
+    private final long maxMemoryBytes;
+
+    private final Emitter emitter;
+
+    private InMapperCombiner(long maxMemoryBytes, Emitter emitter) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.emitter = emitter;
+    }
+
+    /**
+     * Driver 파일에서 정의한 설정 값으로 만들기(setup 함수에서 사용)
+     *
+     * @param emitter 합친 값을 전달하는 함수(태스크 동안 1개만 만들어 사용)
+     * @return In-Mapper Combining을 사용하지 않으면 null
+     */
+    public static InMapperCombiner of(Configuration conf, Emitter emitter) {
+
+        if (!conf.getBoolean(IN_MAPPER_COMBINE, false)) {
+            return null;
+        }
+
+        long maxMemoryBytes = conf.getInt(IN_MAPPER_MEMORY_MB, DEFAULT_IN_MAPPER_MEMORY_MB) * 1024L * 1024L;
+
+        return new InMapperCombiner(maxMemoryBytes, emitter);
+
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 키로 빈도 수 합치기
+     * 최대 메모리 크기를 넘으면, 지금까지 합친 빈도 수를 먼저 전달하고 해시 테이블을 비움
+     */
+    public void add(byte[] bytes, int start, int length, int count) throws IOException, InterruptedException {
+
+        this.counts.add(bytes, start, length, count);
+
+        if (this.counts.memoryBytes() > this.maxMemoryBytes) {
+            this.flush();
+        }
+
+    }
+
+    /**
+     * 해시 테이블에 합친 빈도 수를 모두 전달하고 비우기(cleanup 함수에서 반드시 호출)
+     */
+    public void flush() throws IOException, InterruptedException {
+
+        if (this.counts.isEmpty()) {
+            return;
+        }
+
+        BytesIntHashMap map = this.counts;
+        byte[] data = map.getKeyData();
+
+        for (int i = 0; i < map.size(); i++) {
+            this.emitter.emit(data, map.keyStart(i), map.keyLength(i), map.value(i));
+        }
+
+        map.clear();
+
+    }
+
+}
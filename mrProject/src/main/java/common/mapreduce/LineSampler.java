@@ -0,0 +1,106 @@
+package common.mapreduce;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 잡을 실행하기 전에 입력 파일의 일부 줄만 읽는 객체(InputSampler와 같은 역할)
+ *
+ * 로그 파일은 시간 순서로, WordCount 결과 파일은 단어 순서로 저장되기 때문에 스플릿의 앞부분만 읽으면 한쪽으로 치우친 값만 샘플링됨
+ * 그래서 입력 파일 전체에서 임의의 위치를 골라, 그 위치부터 몇 줄씩 읽음(LineRecordReader가 잘린 첫 줄은 건너뜀)
+ */
+public class LineSampler {
+
+    // 입력 파일에서 읽을 위치 수
+    public static final int DEFAULT_SAMPLES = 200;
+
+    // 위치마다 읽을 최대 줄 수
+    public static final int DEFAULT_LINES_PER_SAMPLE = 100;
+
+    // 위치마다 읽을 최대 크기(byte)
+    private static final long SAMPLE_BYTES = 64 * 1024;
+
+    private LineSampler() {
+    }
+
+    /**
+     * 입력 파일을 샘플링하여 읽은 줄을 하나씩 전달하기
+     * 전달되는 Text 객체는 재사용되기 때문에 보관하려면 복사해야 함
+     *
+     * @param job            입력 파일(FileInputFormat.setInputPaths)이 설정된 잡
+     * @param samples        입력 파일에서 읽을 위치 수
+     * @param linesPerSample 위치마다 읽을 최대 줄 수
+     * @param consumer       읽은 줄을 처리할 함수
+     */
+    public static void sample(Job job, int samples, int linesPerSample, Consumer<Text> consumer) throws IOException, InterruptedException {
+
+        List<InputSplit> splits = new TextInputFormat().getSplits(job);
+
+        long total = 0;
+
+        for (InputSplit split : splits) {
+            total += split.getLength();
+        }
+
+        if (total == 0) {
+            return;
+        }
+
+        TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+
+        // 실행할 때마다 같은 결과가 나오도록 고정된 seed 사용
+        Random random = new Random(total);
+
+        for (int s = 0; s < samples; s++) {
+
+            // 입력 파일 전체에서 임의의 위치를 골라 해당 스플릿과 위치 찾기
+            long offset = (long) (random.nextDouble() * total);
+
+            FileSplit split = null;
+
+            for (InputSplit candidate : splits) {
+
+                if (offset < candidate.getLength()) {
+                    split = (FileSplit) candidate;
+                    break;
+                }
+
+                offset -= candidate.getLength();
+
+            }
+
+            if (split == null) {
+                continue;
+            }
+
+            LineRecordReader reader = new LineRecordReader();
+
+            try {
+
+                reader.initialize(new FileSplit(split.getPath(), split.getStart() + offset, SAMPLE_BYTES, null), context);
+
+                for (int n = 0; n < linesPerSample && reader.nextKeyValue(); n++) {
+                    consumer.accept(reader.getCurrentValue());
+                }
+
+            } finally {
+                reader.close();
+            }
+
+        }
+
+    }
+
+}
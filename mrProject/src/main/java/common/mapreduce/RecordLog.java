@@ -0,0 +1,119 @@
+package common.mapreduce;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.log4j.Logger;
+
+/**
+ * 매퍼, 리듀서에서 레코드마다 남기는 로그(Hot-path 로그)의 수를 제한하는 객체
+ *
+ * 레코드마다 log.info("ip : " + ip)를 호출하면 문자열을 만들고 태스크 로그 파일에 쓰기 때문에
+ * 입력 파일이 크면 분석보다 로그에 더 많은 시간을 사용하고, 로그 파일(userlogs)이 디스크를 채움
+ *
+ * 아래 조건에 해당하는 레코드만 로그를 남기도록 sample 함수로 확인함
+ *  - 태스크의 처음 recordLogFirst건
+ *  - recordLogSample건마다 1건(0이면 사용하지 않음)
+ * 두 값이 모두 0이거나 로거의 INFO 레벨이 꺼져 있으면 sample 함수는 항상 false를 반환하고,
+ * 로그 문자열은 if (recordLog.sample()) 블록 안에서만 만들기 때문에 비용이 거의 없음
+ *
+ * 반복되는 상황(요청 일시가 없는 로그 등)은 로그 대신 Counter(recordLog 그룹)에 기록함
+ * Counter는 setup 함수에서 counter 함수로 1번만 가져오고, map 함수에서는 가져온 Counter의 increment 함수만 호출함
+ *
+ * ex) if (recordLog.sample()) {
+ *         log.info("ip : " + ip);
+ *     }
+ *
+ * ex) setup 함수 : noTimeCounter = recordLog.counter("noTime");
+ *     map 함수 : noTimeCounter.increment(1);
+ */
+public class RecordLog {
+
+    // 태스크의 처음 몇 건의 로그를 남길지 저장하는 Configuration 변수 이름
+    public static final String RECORD_LOG_FIRST = "recordLogFirst";
+
+    // 몇 건마다 1건의 로그를 남길지 저장하는 Configuration 변수 이름(0이면 사용하지 않음)
+    public static final String RECORD_LOG_SAMPLE = "recordLogSample";
+
+    // 반복되는 상황을 기록하는 Counter 그룹 이름
+    public static final String COUNTER_GROUP = "recordLog";
+
+    private final TaskInputOutputContext<?, ?, ?, ?> context;
+
+    // 로그를 남기는지 여부(false면 sample 함수는 레코드 수도 세지 않음)
+    private final boolean enabled;
+
+    private final long first;
+    private final long every;
+
+    // 지금까지 확인한 레코드 수
+    private long records;
+
+    // 로그를 남긴 레코드 수
+    private long logged;
+
+    private RecordLog(TaskInputOutputContext<?, ?, ?, ?> context, boolean enabled, long first, long every) {
+        this.context = context;
+        this.enabled = enabled;
+        this.first = first;
+        this.every = every;
+    }
+
+    /**
+     * Driver 파일에서 정의한 설정 값으로 만들기(setup 함수에서 사용)
+     *
+     * @param log 로그를 남길 로거(INFO 레벨이 꺼져 있으면 로그를 남기지 않음)
+     */
+    public static RecordLog of(TaskInputOutputContext<?, ?, ?, ?> context, Logger log) {
+
+        Configuration conf = context.getConfiguration();
+
+        long first = Math.max(0, conf.getLong(RECORD_LOG_FIRST, 0));
+        long every = Math.max(0, conf.getLong(RECORD_LOG_SAMPLE, 0));
+
+        boolean enabled = (first > 0 || every > 0) && log.isInfoEnabled();
+
+        return new RecordLog(context, enabled, first, every);
+
+    }
+
+    /**
+     * 현재 레코드의 로그를 남길지 확인하기(레코드마다 1번 호출)
+     */
+    public boolean sample() {
+
+        if (!this.enabled) {
+            return false;
+        }
+
+        long n = this.records++;
+
+        if (n < this.first || (this.every > 0 && n % this.every == 0)) {
+            this.logged++;
+            return true;
+        }
+
+        return false;
+
+    }
+
+    /**
+     * 반복되는 상황을 로그 대신 기록할 Counter 가져오기(setup 함수에서 사용) ex) recordLog.counter("noTime")
+     * context.getCounter 함수는 호출할 때마다 그룹과 이름으로 Counter를 찾기 때문에 레코드마다 호출하지 않음
+     */
+    public Counter counter(String name) {
+        return this.context.getCounter(COUNTER_GROUP, name);
+    }
+
+    /**
+     * 확인한 레코드 수와 로그를 남긴 레코드 수(cleanup 함수에서 요약 로그를 남길 때 사용)
+     */
+    public String summary() {
+        return "records : " + this.records + ", logged : " + this.logged;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+}
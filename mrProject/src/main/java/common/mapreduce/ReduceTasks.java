@@ -0,0 +1,82 @@
+package common.mapreduce;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+
+import java.io.IOException;
+
+/**
+ * 입력 파일 크기로 리듀서 수를 정하는 객체
+ *
+ * 리듀서 수를 시간대 수(24개)나 월 수(12개)로 고정하면, 작은 입력 파일에도 리듀서 JVM을 24개씩 실행하고
+ * 큰 입력 파일은 리듀서 수가 부족해서 느려짐
+ * 입력 파일 크기를 bytesPerReducer 값(기본 256MB)으로 나눈 수만큼 리듀서를 실행함(최소 1개, 최대 maxReduceTasks 값)
+ */
+public class ReduceTasks {
+
+    // 리듀서 1개가 처리할 입력 파일 크기(byte)를 저장하는 Configuration 변수 이름
+    public static final String BYTES_PER_REDUCER = "bytesPerReducer";
+
+    // 리듀서 최대 수를 저장하는 Configuration 변수 이름
+    public static final String MAX_REDUCE_TASKS = "maxReduceTasks";
+
+    public static final long DEFAULT_BYTES_PER_REDUCER = 256L * 1024L * 1024L;
+
+    public static final int DEFAULT_MAX_REDUCE_TASKS = 64;
+
+    private ReduceTasks() {
+    }
+
+    /**
+     * 파라미터로 입력한 리듀서 수 확인하기(Driver 파일의 main 함수에서 사용)
+     * 0이면 리듀서 없이 실행되어 매퍼의 키가 그대로 결과 파일에 저장되고, 음수는 리듀서 배정표를 만들 수 없기 때문에 1 이상만 허용함
+     *
+     * @return 1 이상의 정수가 아니면 -1
+     */
+    public static int parse(String value) {
+
+        try {
+
+            int tasks = Integer.parseInt(value.trim());
+
+            return tasks >= 1 ? tasks : -1;
+
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+
+    }
+
+    /**
+     * 잡에 설정된 입력 파일(폴더) 크기로 리듀서 수 구하기
+     *
+     * @param job 입력 파일(FileInputFormat.setInputPaths)이 설정된 잡
+     * @return 리듀서 수
+     */
+    public static int forInput(Job job) throws IOException {
+
+        Configuration conf = job.getConfiguration();
+
+        long bytesPerReducer = Math.max(1, conf.getLong(BYTES_PER_REDUCER, DEFAULT_BYTES_PER_REDUCER));
+        int maxReduceTasks = Math.max(1, conf.getInt(MAX_REDUCE_TASKS, DEFAULT_MAX_REDUCE_TASKS));
+
+        long total = 0;
+
+        for (Path path : FileInputFormat.getInputPaths(job)) {
+
+            FileSystem fs = path.getFileSystem(conf);
+
+            total += fs.getContentSummary(path).getLength();
+
+        }
+
+        long tasks = (total + bytesPerReducer - 1) / bytesPerReducer;
+
+        return (int) Math.max(1, Math.min(maxReduceTasks, tasks));
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package common.mapreduce;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 버킷(시간대, 월 등)별 데이터 양에 맞춰 리듀서를 나눠주는 파티셔너들의 부모 객체
+ *
+ * 버킷마다 리듀서 1개를 고정으로 매칭하면, 데이터가 많은 버킷(저녁 시간대, 특정 월)을 맡은 리듀서가 가장 늦게 끝나서 잡 전체가 느려짐
+ * Driver 파일에서 잡을 실행하기 전에 입력 파일을 샘플링하여 버킷별 데이터 양(가중치)을 구하고, configure 함수로 리듀서 배정표를 만듦
+ *  - 데이터가 많은 버킷은 여러 개로 나눠서 여러 리듀서에 배정함(버킷 안에서는 spread 값으로 나눔)
+ *  - 데이터가 적은 버킷은 가장 일이 적은 리듀서에 함께 배정함
+ *
+ * 배정표는 Configuration의 bucketReducers 변수에 "버킷0의 리듀서들;버킷1의 리듀서들;..." 형태로 저장됨; ex) 0;1,2;3
+ * 배정표가 없거나 배정표에 없는 버킷이면 spread 값으로 리듀서를 나눔
+ */
+public abstract class WeightedBucketPartitioner<KEY, VALUE> extends Partitioner<KEY, VALUE> implements Configurable {
+
+    // 리듀서 배정표를 저장하는 Configuration 변수 이름
+    public static final String BUCKET_REDUCERS = "bucketReducers";
+
+    private Configuration conf;
+
+    // 버킷별 배정된 리듀서 번호
+    private int[][] reducers;
+
+    /**
+     * 키와 값의 버킷 번호(0부터 시작)
+     */
+    protected abstract int bucket(KEY key, VALUE value);
+
+    /**
+     * 여러 리듀서에 배정된 버킷 안에서 리듀서를 고르기 위한 값(IP, 해시 값 등)
+     */
+    protected abstract int spread(KEY key, VALUE value);
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+        this.reducers = parse(conf.get(BUCKET_REDUCERS));
+    }
+
+    @Override
+    public Configuration getConf() {
+        return this.conf;
+    }
+
+    @Override
+    public int getPartition(KEY key, VALUE value, int numReduceTasks) {
+
+        int bucket = this.bucket(key, value);
+
+        // 같은 대역의 값이 같은 리듀서에 몰리지 않도록 비트를 섞어줌
+        int h = (this.spread(key, value) * 0x9E3779B9) ^ (bucket * 0x85EBCA6B);
+        h = (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+
+        if (this.reducers == null || bucket < 0 || bucket >= this.reducers.length) {
+            return h % numReduceTasks;
+        }
+
+        int[] r = this.reducers[bucket];
+
+        return (r.length == 1 ? r[0] : r[h % r.length]) % numReduceTasks;
+
+    }
+
+    /**
+     * 버킷별 가중치(샘플링한 레코드 수)로 리듀서 배정표를 만들어 Configuration에 저장하기
+     *
+     * @param weights     버킷별 가중치
+     * @param numReducers 리듀서 수
+     * @return 저장한 배정표(로그 확인용)
+     */
+    public static String configure(Configuration conf, long[] weights, int numReducers) {
+
+        String value = format(assign(weights, numReducers));
+
+        conf.set(BUCKET_REDUCERS, value);
+
+        return value;
+
+    }
+
+    /**
+     * 리듀서 배정표 만들기
+     *
+     * 1. 전체 가중치를 리듀서 수로 나눈 값(리듀서 1개가 맡을 양)보다 많은 버킷은 그 배수만큼 조각으로 나눔
+     * 2. 조각을 가중치가 큰 순서대로, 현재 일이 가장 적은 리듀서에 배정함(같은 버킷의 조각은 가능하면 다른 리듀서에 배정)
+     */
+    static int[][] assign(long[] weights, int numReducers) {
+
+        int buckets = weights.length;
+
+        // 샘플링에서 나오지 않은 버킷도 리듀서가 필요하기 때문에 가중치를 최소 1로 설정
+        long total = 0;
+        long[] w = new long[buckets];
+
+        for (int b = 0; b < buckets; b++) {
+            w[b] = Math.max(1, weights[b]);
+            total += w[b];
+        }
+
+        double perReducer = (double) total / numReducers;
+
+        // 조각 목록; {버킷 번호, 조각의 가중치}
+        List<long[]> pieces = new ArrayList<>();
+
+        for (int b = 0; b < buckets; b++) {
+
+            int parts = (int) Math.max(1, Math.min(numReducers, Math.round(w[b] / perReducer)));
+
+            for (int i = 0; i < parts; i++) {
+                pieces.add(new long[]{b, w[b] / parts});
+            }
+
+        }
+
+        pieces.sort((x, y) -> Long.compare(y[1], x[1]));
+
+        long[] load = new long[numReducers];
+        List<List<Integer>> result = new ArrayList<>();
+
+        for (int b = 0; b < buckets; b++) {
+            result.add(new ArrayList<>());
+        }
+
+        for (long[] piece : pieces) {
+
+            List<Integer> assigned = result.get((int) piece[0]);
+
+            // 일이 가장 적은 리듀서 찾기(같은 버킷이 배정되지 않은 리듀서 우선)
+            int best = -1;
+
+            for (int r = 0; r < numReducers; r++) {
+
+                if (assigned.contains(r)) {
+                    continue;
+                }
+
+                if (best < 0 || load[r] < load[best]) {
+                    best = r;
+                }
+
+            }
+
+            if (best < 0) {
+                continue;
+            }
+
+            assigned.add(best);
+            load[best] += piece[1];
+
+        }
+
+        int[][] reducers = new int[buckets][];
+
+        for (int b = 0; b < buckets; b++) {
+
+            List<Integer> assigned = result.get(b);
+
+            reducers[b] = new int[assigned.size()];
+
+            for (int i = 0; i < assigned.size(); i++) {
+                reducers[b][i] = assigned.get(i);
+            }
+
+            Arrays.sort(reducers[b]);
+
+        }
+
+        return reducers;
+
+    }
+
+    private static String format(int[][] reducers) {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (int b = 0; b < reducers.length; b++) {
+
+            if (b > 0) {
+                sb.append(';');
+            }
+
+            for (int i = 0; i < reducers[b].length; i++) {
+
+                if (i > 0) {
+                    sb.append(',');
+                }
+
+                sb.append(reducers[b][i]);
+
+            }
+
+        }
+
+        return sb.toString();
+
+    }
+
+    private static int[][] parse(String value) {
+
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        String[] buckets = value.split(";");
+        int[][] reducers = new int[buckets.length][];
+
+        for (int b = 0; b < buckets.length; b++) {
+
+            String[] r = buckets[b].split(",");
+
+            reducers[b] = new int[r.length];
+
+            for (int i = 0; i < r.length; i++) {
+                reducers[b][i] = Integer.parseInt(r[i].trim());
+            }
+
+        }
+
+        return reducers;
+
+    }
+
+}
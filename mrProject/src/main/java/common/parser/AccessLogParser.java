@@ -0,0 +1,519 @@
+package common.parser;
+
+import lombok.Getter;
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 액세스 로그 한 줄을 분석하는 파서
+ * ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
+ *
+ * Text의 바이트 배열을 처음부터 한 번만 읽으면서 각 항목의 시작 위치(Start)와 길이(Length)만 기록함
+ * split()처럼 String, 배열을 새로 만들지 않기 때문에 매퍼마다 파서 객체 1개를 만들어 모든 레코드에 재사용함
+ */
+@Getter
+public class AccessLogParser {
+
+    // 월 이름(인덱스 0 : Jan ~ 인덱스 11 : Dec)
+    public static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+            "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    // 확장자로 인정하는 최대 길이(더 길면 확장자가 없는 것으로 처리)
+    public static final int MAX_EXTENSION_LENGTH = 10;
+
+    // 월 이름을 바이트 단위로 비교하기 위해 미리 변환해 둔 값
+    private static final byte[][] MONTH_BYTES = new byte[MONTH_NAMES.length][];
+
+    static {
+        for (int i = 0; i < MONTH_NAMES.length; i++) {
+            MONTH_BYTES[i] = MONTH_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    // 분석한 로그 한 줄(Text 내부의 바이트 배열을 복사하지 않고 그대로 참조함)
+    private byte[] bytes;
+    private int length;
+
+    // IP; 96.7.4.14
+    private int ipStart;
+    private int ipLength;
+    private int ip; // IP를 32비트 정수로 변환한 값(ipValid가 true일 때만 의미 있음)
+    private boolean ipValid;
+
+    // 요청 일시; 24/Apr/2011:04:20:11 ('['와 시간대(-0400)는 제외)
+    private int timeStart;
+    private int timeLength;
+    private int day;
+    private int month; // 0(Jan) ~ 11(Dec)
+    private int year;
+    private int hour;
+    private int minute;
+    private int second;
+    private boolean timeValid;
+
+    // 요청 방법; GET
+    private int methodStart;
+    private int methodLength;
+
+    // 요청 URI; /cat.jpg
+    private int uriStart;
+    private int uriLength;
+
+    // 요청 URI의 확장자; jpg ('.' 제외, findUriExtension 함수를 호출했을 때만 찾음)
+    private int extensionStart;
+    private int extensionLength;
+
+    // 프로토콜; HTTP/1.1
+    private int protocolStart;
+    private int protocolLength;
+    private boolean requestValid;
+
+    // 전송 결과 코드; 200 (값이 없으면 -1)
+    private int status;
+
+    // 전송 크기; 12433 (값이 없거나 '-'이면 -1)
+    private long size;
+
+    // 숫자를 읽은 후, 다음으로 읽을 위치
+    @Getter(lombok.AccessLevel.NONE)
+    private int cursor;
+
+    /**
+     * Text에 저장된 로그 한 줄 분석하기
+     *
+     * @param line 매퍼가 받은 로그 한 줄
+     * @return IP 항목이 존재하면 true
+     */
+    public boolean parse(Text line) {
+        return parse(line.getBytes(), line.getLength());
+    }
+
+    /**
+     * 바이트 배열에 저장된 로그 한 줄 분석하기
+     *
+     * @param b   로그 한 줄이 저장된 바이트 배열
+     * @param len 바이트 배열 중 실제 로그의 길이
+     * @return IP 항목이 존재하면 true
+     */
+    public boolean parse(byte[] b, int len) {
+
+        this.reset(b, len);
+
+        // IP는 첫 번째 공백 전까지
+        int ipEnd = indexOf((byte) ' ', 0, len);
+
+        if (ipEnd <= 0) {
+            return false;
+        }
+
+        this.ipStart = 0;
+        this.ipLength = ipEnd;
+        this.ipValid = this.parseIp(0, ipEnd);
+
+        // 요청 일시는 '[' ~ ']' 사이
+        int open = indexOf((byte) '[', ipEnd, len);
+        int close = open < 0 ? -1 : indexOf((byte) ']', open + 1, len);
+
+        if (close < 0) {
+            return true;
+        }
+
+        // 시간대(-0400) 앞의 공백까지만 요청 일시로 사용
+        int timeEnd = indexOf((byte) ' ', open + 1, close);
+
+        if (timeEnd < 0) {
+            timeEnd = close;
+        }
+
+        this.timeStart = open + 1;
+        this.timeLength = timeEnd - this.timeStart;
+        this.timeValid = this.parseTime(this.timeStart, timeEnd);
+
+        // 요청 내용은 큰따옴표("") 사이; GET /cat.jpg HTTP/1.1
+        int q1 = indexOf((byte) '"', close + 1, len);
+        int q2 = q1 < 0 ? -1 : indexOf((byte) '"', q1 + 1, len);
+
+        if (q2 < 0) {
+            return true;
+        }
+
+        this.requestValid = this.parseRequest(q1 + 1, q2);
+
+        // 전송 결과 코드와 전송 크기는 요청 내용 뒤에 공백으로 구분되어 있음
+        int pos = skipSpaces(q2 + 1, len);
+        int code = this.readInt(pos, len);
+
+        if (this.cursor > pos) {
+            this.status = code;
+
+            pos = skipSpaces(this.cursor, len);
+
+            long sz = 0;
+            int i = pos;
+
+            while (i < len && isDigit(b[i])) {
+                sz = sz * 10 + (b[i] - '0');
+                i++;
+            }
+
+            if (i > pos) {
+                this.size = sz;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * 이전 레코드의 분석 결과 초기화
+     */
+    private void reset(byte[] b, int len) {
+        this.bytes = b;
+        this.length = len;
+        this.ipStart = this.ipLength = 0;
+        this.ip = 0;
+        this.ipValid = false;
+        this.timeStart = this.timeLength = 0;
+        this.day = this.month = this.year = this.hour = this.minute = this.second = -1;
+        this.timeValid = false;
+        this.methodStart = this.methodLength = 0;
+        this.uriStart = this.uriLength = 0;
+        this.extensionStart = this.extensionLength = 0;
+        this.protocolStart = this.protocolLength = 0;
+        this.requestValid = false;
+        this.status = -1;
+        this.size = -1;
+    }
+
+    /**
+     * 96.7.4.14 형태의 IP를 32비트 정수로 변환
+     */
+    private boolean parseIp(int start, int end) {
+
+        long value = parseIpv4(this.bytes, start, end);
+
+        if (value < 0) {
+            return false;
+        }
+
+        this.ip = (int) value;
+
+        return true;
+
+    }
+
+    /**
+     * 바이트 배열의 일부(start ~ end)에 저장된 IPv4 값(96.7.4.14)을 32비트 정수로 변환하기
+     * IP 대역 표(IPRangeTable) 등 로그가 아닌 파일의 IP를 읽을 때도 사용함
+     *
+     * @return IPv4 형태가 아니면 -1, 맞으면 0 ~ 2^32-1(부호 없는 값)
+     */
+    public static long parseIpv4(byte[] b, int start, int end) {
+
+        int value = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+
+        for (int i = start; i < end; i++) {
+
+            byte c = b[i];
+
+            if (isDigit(c)) {
+                octet = octet * 10 + (c - '0');
+
+                if (++digits > 3 || octet > 255) {
+                    return -1;
+                }
+
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                value = (value << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+
+            } else {
+                return -1;
+
+            }
+
+        }
+
+        if (dots != 3 || digits == 0) {
+            return -1;
+        }
+
+        return ((value << 8) | octet) & 0xFFFFFFFFL;
+
+    }
+
+    /**
+     * 24/Apr/2011:04:20:11 형태의 요청 일시를 일, 월, 년, 시, 분, 초로 나눔
+     */
+    private boolean parseTime(int start, int end) {
+
+        byte[] b = this.bytes;
+
+        int pos = start;
+
+        this.day = this.readInt(pos, end);
+
+        if (this.cursor == pos || this.cursor + 4 >= end || b[this.cursor] != '/') {
+            return false;
+        }
+
+        pos = this.cursor + 1;
+        this.month = findMonth(b, pos);
+
+        if (this.month < 0 || b[pos + 3] != '/') {
+            return false;
+        }
+
+        pos += 4;
+        this.year = this.readInt(pos, end);
+
+        if (this.cursor == pos || this.cursor >= end || b[this.cursor] != ':') {
+            return false;
+        }
+
+        pos = this.cursor + 1;
+        this.hour = this.readInt(pos, end);
+
+        if (this.cursor == pos || this.cursor >= end || b[this.cursor] != ':') {
+            return false;
+        }
+
+        pos = this.cursor + 1;
+        this.minute = this.readInt(pos, end);
+
+        if (this.cursor == pos || this.cursor >= end || b[this.cursor] != ':') {
+            return false;
+        }
+
+        pos = this.cursor + 1;
+        this.second = this.readInt(pos, end);
+
+        return this.cursor > pos;
+
+    }
+
+    /**
+     * GET /cat.jpg HTTP/1.1 형태의 요청 내용을 요청 방법, URI, 프로토콜로 나눔
+     */
+    private boolean parseRequest(int start, int end) {
+
+        int methodEnd = indexOf((byte) ' ', start, end);
+
+        if (methodEnd <= start) {
+            return false;
+        }
+
+        this.methodStart = start;
+        this.methodLength = methodEnd - start;
+
+        int pos = skipSpaces(methodEnd, end);
+        int uriEnd = indexOf((byte) ' ', pos, end);
+
+        if (uriEnd < 0) {
+            uriEnd = end;
+        }
+
+        this.uriStart = pos;
+        this.uriLength = uriEnd - pos;
+
+        pos = skipSpaces(uriEnd, end);
+
+        this.protocolStart = pos;
+        this.protocolLength = end - pos;
+
+        return this.uriLength > 0;
+
+    }
+
+    /**
+     * 양의 정수 읽기; 읽은 후의 위치는 cursor 변수에 저장됨
+     */
+    private int readInt(int start, int end) {
+
+        byte[] b = this.bytes;
+
+        int value = 0;
+        int i = start;
+
+        while (i < end && i - start < 9 && isDigit(b[i])) {
+            value = value * 10 + (b[i] - '0');
+            i++;
+        }
+
+        this.cursor = i;
+
+        return value;
+
+    }
+
+    /**
+     * 3글자 월 이름(Jan~Dec)을 월 번호(0~11)로 변환
+     * pos부터 3바이트가 있어야 하며, 월 이름이 아니면 -1
+     */
+    public static int findMonth(byte[] b, int pos) {
+
+        for (int m = 0; m < MONTH_BYTES.length; m++) {
+
+            byte[] name = MONTH_BYTES[m];
+
+            if (b[pos] == name[0] && b[pos + 1] == name[1] && b[pos + 2] == name[2]) {
+                return m;
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    private int indexOf(byte c, int from, int to) {
+
+        byte[] b = this.bytes;
+
+        for (int i = from; i < to; i++) {
+            if (b[i] == c) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    private int skipSpaces(int from, int to) {
+
+        int i = from;
+
+        while (i < to && this.bytes[i] == ' ') {
+            i++;
+        }
+
+        return i;
+
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 요청 URI의 확장자 위치 찾기(extensionStart, extensionLength에 저장)
+     * 쿼리 문자열(?) 등을 제외한 마지막 경로(/) 뒤의 마지막 점(.) 다음부터 확장자로 사용함
+     * ex) /img/Cat.JPG?size=1 -> JPG, /a.b/index -> 없음
+     *
+     * @return 확장자가 없거나, MAX_EXTENSION_LENGTH보다 길면 false
+     */
+    public boolean findUriExtension() {
+
+        this.extensionStart = this.extensionLength = 0;
+
+        if (!this.requestValid) {
+            return false;
+        }
+
+        byte[] b = this.bytes;
+        int start = this.uriStart;
+        int end = start + this.uriLength;
+
+        // 쿼리 문자열(?) 등은 확장자에서 제외
+        for (int i = start; i < end; i++) {
+            if (b[i] == '?' || b[i] == '#' || b[i] == ';') {
+                end = i;
+                break;
+            }
+        }
+
+        // 마지막 경로(/) 뒤의 마지막 점(.) 찾기
+        for (int i = end - 1; i >= start && b[i] != '/'; i--) {
+
+            if (b[i] == '.') {
+
+                int length = end - i - 1;
+
+                if (length == 0 || length > MAX_EXTENSION_LENGTH) {
+                    return false;
+                }
+
+                this.extensionStart = i + 1;
+                this.extensionLength = length;
+
+                return true;
+
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * 32비트 정수로 변환한 IP를 96.7.4.14 형태의 바이트로 되돌리기
+     * 리듀서에서 결과 파일에 저장할 때처럼 점(.)으로 구분된 형태가 필요한 경우에만 사용함
+     *
+     * @param ip  parse 함수에서 변환한 IP 값
+     * @param buf 결과를 저장할 배열(15바이트 이상)
+     * @return buf에 저장한 길이
+     */
+    public static int formatIp(int ip, byte[] buf) {
+        return formatIp(ip, buf, 0);
+    }
+
+    /**
+     * 32비트 정수로 변환한 IP를 buf 배열의 offset 위치부터 96.7.4.14 형태로 저장하기
+     *
+     * @return buf에 저장한 길이
+     */
+    public static int formatIp(int ip, byte[] buf, int offset) {
+
+        int n = offset;
+
+        for (int shift = 24; shift >= 0; shift -= 8) {
+
+            int octet = (ip >>> shift) & 0xFF;
+
+            if (octet >= 100) {
+                buf[n++] = (byte) ('0' + octet / 100);
+            }
+
+            if (octet >= 10) {
+                buf[n++] = (byte) ('0' + (octet / 10) % 10);
+            }
+
+            buf[n++] = (byte) ('0' + octet % 10);
+
+            if (shift > 0) {
+                buf[n++] = '.';
+            }
+
+        }
+
+        return n - offset;
+
+    }
+
+    // MongoDB 저장처럼 String이 꼭 필요한 경우에만 사용
+    public String ipAsString() {
+        return new String(this.bytes, this.ipStart, this.ipLength, StandardCharsets.UTF_8);
+    }
+
+    public String timeAsString() {
+        return new String(this.bytes, this.timeStart, this.timeLength, StandardCharsets.UTF_8);
+    }
+
+    public String methodAsString() {
+        return new String(this.bytes, this.methodStart, this.methodLength, StandardCharsets.UTF_8);
+    }
+
+    public String uriAsString() {
+        return new String(this.bytes, this.uriStart, this.uriLength, StandardCharsets.UTF_8);
+    }
+
+}
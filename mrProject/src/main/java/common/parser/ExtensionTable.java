@@ -0,0 +1,197 @@
+package common.parser;
+
+import org.apache.hadoop.conf.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * 요청 URI의 확장자를 미리 정한 확장자 표(jpg, gif 등)에서 찾는 객체
+ *
+ * 확장자 표는 Driver 파일에서 쉼표로 구분된 값으로 Configuration에 저장함 ex) jpg,jpeg,gif,png
+ * URI를 toLowerCase()로 바꾸지 않고, 파서가 찾은 확장자 위치(findUriExtension)의 바이트를 대소문자 구분 없이 비교함
+ * 확장자 표는 소문자로 정렬되어 있어서 이진 탐색으로 찾고, 조회할 때 객체를 만들지 않음
+ *
+ * lookup 함수는 확장자별로 세는 매퍼(ImageCount)에서, contains 함수는 확장자로 로그를 걸러내는 매퍼(AccessLogStats)에서 사용함
+ */
+public class ExtensionTable {
+
+    // 확장자가 표에 없는 경우
+    public static final int UNKNOWN = -1;
+
+    // URI에 확장자가 없는 경우(요청 내용이 없는 로그 포함)
+    public static final int NONE = -2;
+
+    // 소문자로 정렬된 확장자('.' 제외)
+    private final byte[][] extensions;
+
+    private ExtensionTable(byte[][] extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * 쉼표로 구분된 확장자로 확장자 표 만들기(앞의 '.'과 대소문자는 무시하고, 중복은 제거함)
+     *
+     * @param extensions ex) jpg,.GIF,png
+     */
+    public static ExtensionTable of(String extensions) {
+
+        TreeSet<String> names = new TreeSet<>();
+
+        for (String extension : extensions.split(",")) {
+
+            String name = extension.trim().toLowerCase();
+
+            if (name.startsWith(".")) {
+                name = name.substring(1);
+            }
+
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+
+        }
+
+        byte[][] bytes = new byte[names.size()][];
+        int i = 0;
+
+        // TreeSet의 String 순서는 ASCII 확장자의 바이트 순서와 같음
+        for (String name : names) {
+            bytes[i++] = name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        return new ExtensionTable(bytes);
+
+    }
+
+    /**
+     * Configuration에 저장된 확장자 표 가져오기
+     *
+     * @return 변수가 없으면 null
+     */
+    public static ExtensionTable fromConf(Configuration conf, String name) {
+
+        String extensions = conf.get(name);
+
+        return extensions == null ? null : of(extensions);
+
+    }
+
+    /**
+     * 파서가 분석한 로그 한 줄의 URI 확장자 번호 찾기
+     *
+     * @return 확장자 번호(0 ~ size()-1), 표에 없으면 UNKNOWN, 확장자가 없으면 NONE
+     */
+    public int lookup(AccessLogParser parser) {
+
+        if (!parser.findUriExtension()) {
+            return NONE;
+        }
+
+        return this.indexOf(parser.getBytes(), parser.getExtensionStart(), parser.getExtensionLength());
+
+    }
+
+    /**
+     * URI 확장자가 표에 있는지 확인하기(확장자로 로그를 걸러낼 때 사용)
+     */
+    public boolean contains(AccessLogParser parser) {
+        return this.lookup(parser) >= 0;
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 대소문자 구분 없이 확장자 표에서 찾기
+     *
+     * @return 확장자 번호, 없으면 UNKNOWN
+     */
+    public int indexOf(byte[] bytes, int start, int length) {
+
+        int low = 0;
+        int high = this.extensions.length - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int c = compare(this.extensions[mid], bytes, start, length);
+
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+
+        }
+
+        return UNKNOWN;
+
+    }
+
+    public int size() {
+        return this.extensions.length;
+    }
+
+    /**
+     * 확장자 번호의 확장자 이름(소문자) ex) 0 -> gif
+     */
+    public String name(int index) {
+        return new String(this.extensions[index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+
+        String[] names = new String[this.extensions.length];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.name(i);
+        }
+
+        return Arrays.toString(names);
+
+    }
+
+    /**
+     * 바이트 배열의 일부를 영문 소문자로 바꿔서 다른 배열에 복사하기
+     *
+     * @return 복사한 길이
+     */
+    public static int toLowerCase(byte[] src, int start, int length, byte[] dest, int offset) {
+
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = toLower(src[start + i]);
+        }
+
+        return length;
+
+    }
+
+    /**
+     * 소문자 확장자와 조회할 값 비교(조회할 값의 영문 대문자는 소문자로 바꿔서 비교)
+     */
+    private static int compare(byte[] extension, byte[] bytes, int start, int length) {
+
+        int n = Math.min(extension.length, length);
+
+        for (int i = 0; i < n; i++) {
+
+            int a = extension[i] & 0xFF;
+            int b = toLower(bytes[start + i]) & 0xFF;
+
+            if (a != b) {
+                return a - b;
+            }
+
+        }
+
+        return extension.length - length;
+
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+}
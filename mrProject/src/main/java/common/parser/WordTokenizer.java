@@ -0,0 +1,339 @@
+package common.parser;
+
+import lombok.Getter;
+import org.apache.hadoop.io.Text;
+
+/**
+ * 한 줄의 텍스트를 단어로 나누는 토크나이저
+ * line.split("\\W+")와 같이 문자, 숫자, '_'가 연속된 부분을 단어로 인식함
+ *
+ * split()은 정규식 엔진을 실행하고 단어마다 String을 만들지만, 이 객체는 Text의 UTF-8 바이트를 한 번만 읽음
+ * 영문(ASCII)은 바이트를 바로 비교하고, 한글 등 ASCII가 아닌 문자만 코드 포인트로 변환하여 문자 여부를 확인함
+ * \\W+ 정규식은 한글을 특수문자로 보기 때문에 한글 단어가 모두 사라졌지만, 이 객체는 한글 단어도 인식함
+ *
+ * 단어는 bytes 배열의 start부터 length만큼의 위치로 제공되며, 매퍼마다 객체 1개를 만들어 재사용함
+ */
+@Getter
+public class WordTokenizer {
+
+    // 단어를 소문자로 변환할지 여부
+    private final boolean lowerCase;
+
+    // 현재 단어가 저장된 바이트 배열(소문자로 변환한 경우 내부 버퍼)
+    private byte[] bytes;
+
+    // 현재 단어의 시작 위치와 바이트 길이
+    private int start;
+    private int length;
+
+    // 현재 단어의 글자 수(String.length()와 동일한 기준)
+    private int charLength;
+
+    // 분석 중인 한 줄
+    @Getter(lombok.AccessLevel.NONE)
+    private byte[] line;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private int pos;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private int end;
+
+    // 소문자로 변환한 단어를 저장하는 버퍼(단어마다 새로 만들지 않음)
+    @Getter(lombok.AccessLevel.NONE)
+    private byte[] lowerBuffer = new byte[64];
+
+    // 마지막으로 읽은 문자의 바이트 길이
+    @Getter(lombok.AccessLevel.NONE)
+    private int charBytes;
+
+    public WordTokenizer() {
+        this(false);
+    }
+
+    /**
+     * @param lowerCase true이면 단어를 소문자로 변환함
+     */
+    public WordTokenizer(boolean lowerCase) {
+        this.lowerCase = lowerCase;
+    }
+
+    /**
+     * 나눌 한 줄 설정하기
+     */
+    public void reset(Text text) {
+        this.reset(text.getBytes(), text.getLength());
+    }
+
+    /**
+     * 나눌 한 줄 설정하기
+     */
+    public void reset(byte[] b, int len) {
+        this.line = b;
+        this.pos = 0;
+        this.end = len;
+        this.bytes = b;
+        this.start = 0;
+        this.length = 0;
+        this.charLength = 0;
+    }
+
+    /**
+     * 다음 단어 찾기
+     *
+     * @return 단어가 존재하면 true
+     */
+    public boolean next() {
+
+        byte[] b = this.line;
+        int i = this.pos;
+        int limit = this.end;
+
+        // 단어의 시작 위치 찾기(특수문자, 공백 건너뛰기)
+        while (i < limit) {
+
+            byte c = b[i];
+
+            if (c >= 0) { // ASCII
+                if (isAsciiWordChar(c)) {
+                    break;
+                }
+                i++;
+
+            } else {
+                int cp = this.decode(b, i, limit);
+
+                if (cp >= 0 && isWordCodePoint(cp)) {
+                    break;
+                }
+                i += this.charBytes;
+
+            }
+
+        }
+
+        if (i >= limit) {
+            this.pos = limit;
+            return false;
+        }
+
+        int wordStart = i;
+        int chars = 0;
+        boolean hasUpper = false;
+        boolean ascii = true;
+
+        // 단어의 끝 위치 찾기
+        while (i < limit) {
+
+            byte c = b[i];
+
+            if (c >= 0) { // ASCII
+                if (!isAsciiWordChar(c)) {
+                    break;
+                }
+
+                if (c >= 'A' && c <= 'Z') {
+                    hasUpper = true;
+                }
+
+                chars++;
+                i++;
+
+            } else {
+                int cp = this.decode(b, i, limit);
+
+                if (cp < 0 || !isWordCodePoint(cp)) {
+                    break;
+                }
+
+                ascii = false;
+                chars += Character.charCount(cp);
+                i += this.charBytes;
+
+            }
+
+        }
+
+        this.pos = i;
+        this.charLength = chars;
+
+        if (this.lowerCase && (hasUpper || !ascii)) {
+            this.toLowerCase(b, wordStart, i, ascii);
+
+        } else {
+            this.bytes = b;
+            this.start = wordStart;
+            this.length = i - wordStart;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * 현재 단어를 재사용하는 Text 객체에 복사하기
+     */
+    public void copyTo(Text out) {
+        out.set(this.bytes, this.start, this.length);
+    }
+
+    /**
+     * 단어를 소문자로 변환하여 내부 버퍼에 저장
+     */
+    private void toLowerCase(byte[] b, int from, int to, boolean ascii) {
+
+        // 소문자로 변환해도 UTF-8 길이는 최대 1.5배(2바이트 -> 3바이트)를 넘지 않음
+        int need = (to - from) * 2;
+
+        if (this.lowerBuffer.length < need) {
+            this.lowerBuffer = new byte[need];
+        }
+
+        byte[] out = this.lowerBuffer;
+        int n = 0;
+
+        if (ascii) {
+
+            for (int i = from; i < to; i++) {
+
+                byte c = b[i];
+
+                out[n++] = (c >= 'A' && c <= 'Z') ? (byte) (c + 32) : c;
+
+            }
+
+        } else {
+
+            int i = from;
+
+            while (i < to) {
+
+                byte c = b[i];
+
+                if (c >= 0) {
+                    out[n++] = (c >= 'A' && c <= 'Z') ? (byte) (c + 32) : c;
+                    i++;
+
+                } else {
+                    int cp = Character.toLowerCase(this.decode(b, i, to));
+                    i += this.charBytes;
+                    n = encode(cp, out, n);
+
+                }
+
+            }
+
+        }
+
+        this.bytes = out;
+        this.start = 0;
+        this.length = n;
+
+    }
+
+    /**
+     * UTF-8 바이트를 코드 포인트로 변환(ASCII가 아닌 문자만 호출됨)
+     * 읽은 바이트 수는 charBytes 변수에 저장되며, 잘못된 바이트이면 -1을 반환함
+     */
+    private int decode(byte[] b, int i, int limit) {
+
+        int c = b[i] & 0xFF;
+        int n;
+        int cp;
+
+        if (c >= 0xF0 && c < 0xF8) {
+            n = 4;
+            cp = c & 0x07;
+
+        } else if (c >= 0xE0) {
+            n = 3;
+            cp = c & 0x0F;
+
+        } else if (c >= 0xC0) {
+            n = 2;
+            cp = c & 0x1F;
+
+        } else {
+            this.charBytes = 1;
+            return -1;
+
+        }
+
+        if (c >= 0xF8 || i + n > limit) {
+            this.charBytes = 1;
+            return -1;
+        }
+
+        for (int k = 1; k < n; k++) {
+
+            int cc = b[i + k] & 0xFF;
+
+            if ((cc & 0xC0) != 0x80) {
+                this.charBytes = k;
+                return -1;
+            }
+
+            cp = (cp << 6) | (cc & 0x3F);
+
+        }
+
+        this.charBytes = n;
+
+        return cp;
+
+    }
+
+    /**
+     * 코드 포인트를 UTF-8 바이트로 변환하여 out 배열의 n 위치부터 저장
+     */
+    private static int encode(int cp, byte[] out, int n) {
+
+        if (cp < 0x80) {
+            out[n++] = (byte) cp;
+
+        } else if (cp < 0x800) {
+            out[n++] = (byte) (0xC0 | (cp >> 6));
+            out[n++] = (byte) (0x80 | (cp & 0x3F));
+
+        } else if (cp < 0x10000) {
+            out[n++] = (byte) (0xE0 | (cp >> 12));
+            out[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            out[n++] = (byte) (0x80 | (cp & 0x3F));
+
+        } else {
+            out[n++] = (byte) (0xF0 | (cp >> 18));
+            out[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            out[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            out[n++] = (byte) (0x80 | (cp & 0x3F));
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * 영문 대소문자, 숫자, '_'인지 확인(\\w 정규식과 동일)
+     */
+    private static boolean isAsciiWordChar(byte c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * 한글 등 ASCII가 아닌 문자가 단어에 포함되는 문자인지 확인
+     * 문자, 숫자와 함께 결합 문자(악센트 등)도 단어의 일부로 봄
+     */
+    private static boolean isWordCodePoint(int cp) {
+
+        if (Character.isLetterOrDigit(cp)) {
+            return true;
+        }
+
+        int type = Character.getType(cp);
+
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+
+    }
+
+}
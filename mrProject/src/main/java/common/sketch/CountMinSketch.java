@@ -0,0 +1,197 @@
+package common.sketch;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.util.hash.MurmurHash;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 키(바이트 배열)별 빈도 수를 고정된 크기의 카운터 표로 추정하는 Count-Min Sketch
+ *
+ * 서로 다른 키가 아무리 많아도 메모리는 depth * width개의 long으로 고정되고, 정확한 빈도 수보다 작게 추정하지 않음
+ *  - width = e / epsilon : 추정 값은 (정확한 빈도 수 + epsilon * 전체 빈도 수) 이하
+ *  - depth = ln(1 / delta) : 위 오차 범위를 1 - delta 확률로 만족함
+ * ex) epsilon 0.001, delta 0.01 -> width 2719, depth 5(약 106KB)
+ *
+ * 같은 크기의 스케치는 카운터를 더하는 것만으로 합칠 수 있기 때문에(merge) 매퍼마다 만든 스케치를 리듀서에서 합침
+ * 카운터 표는 VLong으로 직렬화하여 비어있는 칸은 1바이트만 사용함
+ */
+public class CountMinSketch implements Writable {
+
+    // 키의 카운터 위치를 구할 때 사용하는 해시 함수
+    private static final MurmurHash HASH = (MurmurHash) MurmurHash.getInstance();
+
+    private int depth;
+    private int width;
+
+    // depth개의 행(row)을 이어 붙인 카운터 표
+    private long[] table;
+
+    // 지금까지 더한 전체 빈도 수
+    private long total;
+
+    // 키의 행별 카운터 위치(레코드마다 새로 만들지 않고 재사용함)
+    private int[] index;
+
+    // Writable은 기본 생성자가 필요함(readFields로 크기를 읽어옴)
+    public CountMinSketch() {
+        this(1, 1);
+    }
+
+    /**
+     * @param epsilon 전체 빈도 수 대비 최대 오차 비율 ex) 0.001
+     * @param delta   오차 범위를 벗어날 확률 ex) 0.01
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        this((int) Math.ceil(Math.log(1 / delta)), (int) Math.ceil(Math.E / epsilon));
+    }
+
+    public CountMinSketch(int depth, int width) {
+
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive : " + depth + ", " + width);
+        }
+
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth * width];
+        this.index = new int[depth];
+
+    }
+
+    /**
+     * 키의 빈도 수 더하기
+     *
+     * @return 더한 후의 추정 빈도 수
+     */
+    public long add(byte[] bytes, int start, int length, long count) {
+
+        this.hash(bytes, start, length);
+
+        long min = Long.MAX_VALUE;
+
+        for (int i = 0; i < this.depth; i++) {
+            min = Math.min(min, this.table[this.index[i]] += count);
+        }
+
+        this.total += count;
+
+        return min;
+
+    }
+
+    /**
+     * 키의 추정 빈도 수(행별 카운터 중 가장 작은 값)
+     */
+    public long estimate(byte[] bytes, int start, int length) {
+
+        this.hash(bytes, start, length);
+
+        long min = Long.MAX_VALUE;
+
+        for (int i = 0; i < this.depth; i++) {
+            min = Math.min(min, this.table[this.index[i]]);
+        }
+
+        return min;
+
+    }
+
+    /**
+     * 같은 크기의 다른 스케치를 합치기
+     */
+    public void merge(CountMinSketch other) {
+
+        if (other.depth != this.depth || other.width != this.width) {
+            throw new IllegalArgumentException("sketch size mismatch : " + other.depth + "x" + other.width + " != " + this.depth + "x" + this.width);
+        }
+
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] += other.table[i];
+        }
+
+        this.total += other.total;
+
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * 전체 빈도 수 대비 최대 오차 비율(e / width)
+     */
+    public double getEpsilon() {
+        return Math.E / this.width;
+    }
+
+    /**
+     * 추정 값의 최대 오차(epsilon * 전체 빈도 수)
+     */
+    public long errorBound() {
+        return (long) Math.ceil(this.getEpsilon() * this.total);
+    }
+
+    /**
+     * 행별 카운터 위치 구하기
+     * 해시 값 2개를 조합하여 행마다 다른 해시 함수처럼 사용함(h1 + i * h2)
+     */
+    private void hash(byte[] bytes, int start, int length) {
+
+        int h1 = HASH.hash(bytes, start, length, 0);
+        int h2 = HASH.hash(bytes, start, length, h1);
+
+        for (int i = 0; i < this.depth; i++) {
+            int h = (h1 + i * h2) & Integer.MAX_VALUE;
+            this.index[i] = i * this.width + h % this.width;
+        }
+
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+
+        WritableUtils.writeVInt(out, this.depth);
+        WritableUtils.writeVInt(out, this.width);
+        WritableUtils.writeVLong(out, this.total);
+
+        for (long value : this.table) {
+            WritableUtils.writeVLong(out, value);
+        }
+
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+
+        int depth = WritableUtils.readVInt(in);
+        int width = WritableUtils.readVInt(in);
+
+        // 크기가 같으면 배열을 재사용함
+        if (depth != this.depth || width != this.width) {
+            this.depth = depth;
+            this.width = width;
+            this.table = new long[depth * width];
+            this.index = new int[depth];
+        }
+
+        this.total = WritableUtils.readVLong(in);
+
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = WritableUtils.readVLong(in);
+        }
+
+    }
+
+}
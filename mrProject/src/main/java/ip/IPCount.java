@@ -1,5 +1,8 @@
 package ip;
 
+import common.cache.IPRangeTable;
+import common.io.IPv4Writable;
+import common.mapreduce.CountMapper;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
@@ -17,8 +20,15 @@ public class IPCount {
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더)로 2개 받음
-        if (args.length != 2) {
-            System.out.printf("분석할 폴더(파일) 및 분석 결과가 저장될 폴더를 입력해야 합니다.");
+        // 세 번째 파라미터로 packed를 입력하면, IP를 32비트 정수로 변환하여 처리함(선택)
+        // 세 번째 파라미터로 region과 네 번째 파라미터로 IP 대역 표 파일을 입력하면, IP 대신 지역별 빈도 수를 셈(선택)
+        // 세 번째 파라미터를 잘못 입력하면(ex. pakced) 기본 방식으로 실행하지 않고 종료함
+        boolean validArgs = args.length == 2
+                || (args.length == 3 && "packed".equals(args[2]))
+                || (args.length == 4 && "region".equals(args[2]));
+
+        if (!validArgs) {
+            System.out.printf("분석할 폴더(파일) 및 분석 결과가 저장될 폴더를 입력해야 합니다. (선택 : packed 또는 region IP대역표파일)");
             System.exit(-1);
         }
 
@@ -38,11 +48,50 @@ public class IPCount {
         // 분석 결과가 저장되는 폴더(파일) -- 두 번째 파라미터
         FileOutputFormat.setOutputPath(job, new Path(args[1]));
 
-        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
-        job.setMapperClass(IPCountMapper.class);
+        // IP를 32비트 정수로 변환하여 처리할지 여부 -- 세 번째 파라미터(선택)
+        boolean packed = args.length == 3 && "packed".equals(args[2]);
 
-        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
-        job.setReducerClass(IPCountReducer.class);
+        // IP 대역 표로 지역을 찾아서 지역별로 셀지 여부 -- 세 번째, 네 번째 파라미터(선택)
+        boolean region = args.length == 4;
+
+        if (region) {
+
+            // IP 대역 표 파일을 분산 캐시에 올리면, 매퍼가 setup 함수에서 JVM마다 1번만 읽어서 정렬된 배열로 만듦
+            // 로그를 Shuffle and Sort로 보내서 조인하지 않고, 매퍼에서 바로 지역을 찾음(Map-side Replicated Join)
+            IPRangeTable.addToJob(job, new Path(args[3]));
+
+            // IP 대신 지역 이름을 키로 전달하는 Mapper 설정
+            job.setMapperClass(IPRegionMapper.class);
+
+            // 지역 수는 적기 때문에 매퍼 안에서 빈도 수를 먼저 합친 후 전달함
+            job.getConfiguration().setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+
+            // 지역별 빈도 수는 IP별 빈도 수와 같은 방법으로 합침
+            job.setReducerClass(IPCountReducer.class);
+
+        } else if (packed) {
+
+            // IP를 정수(IPv4Writable)로 변환하고, 매퍼 안에서 빈도 수를 먼저 합치는 Mapper 설정
+            // IPv4Writable은 IP의 숫자 순서로 정렬되기 때문에 결과 파일도 숫자 순서로 저장됨
+            job.setMapperClass(IPCountPackedMapper.class);
+
+            // 리듀서는 정수 IP를 점(.)으로 구분된 형태로 되돌려서 결과 파일에 저장함
+            job.setReducerClass(IPCountPackedReducer.class);
+
+            // Shuffle and Sort로 전달할 키(IP)와 값(빈도 수)의 데이터 타입
+            // 결과 파일의 데이터 타입(Text, IntWritable)과 다르기 때문에 별도로 설정함
+            job.setMapOutputKeyClass(IPv4Writable.class);
+            job.setMapOutputValueClass(IntWritable.class);
+
+        } else {
+
+            // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+            job.setMapperClass(IPCountMapper.class);
+
+            // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+            job.setReducerClass(IPCountReducer.class);
+
+        }
 
         // 분석 결과가 저장될 때 사용될 키(key)의 데이터 타입
         job.setOutputKeyClass(Text.class);
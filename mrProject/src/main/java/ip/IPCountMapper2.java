@@ -1,9 +1,8 @@
 package ip;
 
-import org.apache.hadoop.io.IntWritable;
+import common.mapreduce.CountMapper;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
 import java.util.regex.Matcher;
@@ -11,10 +10,15 @@ import java.util.regex.Pattern;
 
 /**
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
+ * 출력 키(Text)와 값(IntWritable) 객체를 재사용하기 위해 Mapper를 상속받은 CountMapper를 상속받음
  * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
  * Mapper 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
  */
-public class IPCountMapper2 extends Mapper<LongWritable, Text, Text, IntWritable> {
+public class IPCountMapper2 extends CountMapper<LongWritable, Text> {
+
+    // IP 형태(196.168.0.127)를 찾는 정규식
+    // 레코드마다 컴파일하지 않도록 1번만 컴파일함
+    private static final Pattern IP_PATTERN = Pattern.compile("[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}");
 
     /**
      * 부모 Mapper 자바 파일에 작성된 map 함수를 덮어쓰기(Override) 수행
@@ -29,16 +33,13 @@ public class IPCountMapper2 extends Mapper<LongWritable, Text, Text, IntWritable
 
         String ip = "";
 
-        String regex = "[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}";
-
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(line);
+        Matcher matcher = IP_PATTERN.matcher(line);
 
         while (matcher.find()) {
             ip = matcher.group();
         }
 
-        context.write(new Text(ip), new IntWritable(1));
+        emit(context, ip);
 
     }
 
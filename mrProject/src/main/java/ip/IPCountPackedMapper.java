@@ -0,0 +1,110 @@
+package ip;
+
+import common.collect.IntIntHashMap;
+import common.io.IPv4Writable;
+import common.mapreduce.CountMapper;
+import common.parser.AccessLogParser;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * IP를 32비트 정수(IPv4Writable)로 변환하여 빈도 수를 세는 Mapper
+ * IP를 문자열(Text)로 전달하면 최대 16바이트지만, 정수로 전달하면 항상 4바이트라서 Shuffle and Sort 데이터가 줄어듦
+ * IPv4Writable은 직렬화된 4바이트를 그대로 비교해서 정렬하기 때문에 결과 파일은 IP의 숫자 순서로 저장됨
+ *
+ * IP별 빈도 수는 매퍼 안의 해시 테이블(IntIntHashMap)에서 먼저 합친 후 cleanup 함수에서 한 번에 전달함(In-Mapper Combining)
+ * 해시 테이블이 inMapperMemoryMB 크기를 넘으면, 그때까지 합친 값을 먼저 전달하고 비운 후 계속 합침
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(IPv4Writable, IntWritable)은 리듀스에 보낼 IP와 빈도 수의 데이터 타입
+ */
+public class IPCountPackedMapper extends Mapper<LongWritable, Text, IPv4Writable, IntWritable> {
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // IP별 빈도 수를 합치는 해시 테이블
+    private final IntIntHashMap counts = new IntIntHashMap(1 << 16);
+
+    // Shuffle and Sort로 전달할 키(IP)와 값(빈도 수); 태스크 동안 재사용
+    private final IPv4Writable outKey = new IPv4Writable();
+    private final IntWritable outValue = new IntWritable();
+
+    // 해시 테이블의 최대 메모리 크기(byte)
+    private long maxMemoryBytes;
+
+    // IPv4 형태가 아니라서 정수로 변환하지 못한 로그 수
+    private Counter invalidCounter;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        Configuration conf = context.getConfiguration();
+
+        this.maxMemoryBytes = conf.getInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB) * 1024L * 1024L;
+
+        // 레코드마다 Counter를 찾지 않도록 1번만 가져옴
+        this.invalidCounter = context.getCounter("ipCount", "invalid");
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값(로그 한 줄 저장됨)
+        // ex) 10.223.157.186 - - [15/Jul/2009:14:58:59 -0700] "GET / HTTP/1.1" 403 202
+        // 파서가 IP(10.223.157.186)를 읽으면서 32비트 정수로 변환함
+        if (!parser.parse(value)) {
+            return;
+        }
+
+        // 호스트 이름 등 IPv4 형태가 아닌 값은 정수로 변환할 수 없어서 Counter로만 기록함
+        if (!parser.isIpValid()) {
+            invalidCounter.increment(1);
+            return;
+        }
+
+        counts.add(parser.getIp(), 1);
+
+        // 최대 메모리 크기를 넘으면, 지금까지 합친 빈도 수를 먼저 전달하고 해시 테이블 비우기
+        if (counts.memoryBytes() > maxMemoryBytes) {
+            flush(context);
+        }
+
+    }
+
+    /**
+     * 해시 테이블에 남아있는 빈도 수를 모두 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        flush(context);
+
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 해시 테이블에 합친 빈도 수를 Shuffle and Sort로 전달하고 비우기
+     */
+    private void flush(Context context) throws IOException, InterruptedException {
+
+        for (int i = 0; i < counts.size(); i++) {
+            outKey.set(counts.key(i));
+            outValue.set(counts.value(i));
+            context.write(outKey, outValue);
+        }
+
+        counts.clear();
+
+    }
+
+}
@@ -0,0 +1,47 @@
+package ip;
+
+import common.io.IPv4Writable;
+import common.parser.AccessLogParser;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 32비트 정수로 전달받은 IP의 빈도 수를 합치는 Reducer
+ * 결과 파일에는 기존 IPCountReducer와 같이 점(.)으로 구분된 IP(Text)와 빈도 수를 저장함
+ *
+ * Reducer 파일의 앞의 2개 데이터 타입(IPv4Writable, IntWritable)은 IPCountPackedMapper가 보낸 IP와 빈도 수의 데이터 타입
+ * Reducer 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 결과 파일 생성에 사용될 키(key)와 값(value)
+ */
+public class IPCountPackedReducer extends Reducer<IPv4Writable, IntWritable, Text, IntWritable> {
+
+    // 결과 파일에 저장할 키(IP)와 값(빈도 수); 태스크 동안 재사용
+    private final Text outKey = new Text();
+    private final IntWritable result = new IntWritable();
+
+    // 정수 IP를 점(.)으로 구분된 형태로 변환할 때 사용하는 배열(최대 255.255.255.255, 15바이트)
+    private final byte[] ipBuffer = new byte[15];
+
+    @Override
+    public void reduce(IPv4Writable key, Iterable<IntWritable> values, Context context) throws IOException, InterruptedException {
+
+        // IP별 빈도 수를 계산하기 위한 변수
+        // 매퍼에서 이미 합친 값이 전달되기 때문에 1이 아닌 값도 더함
+        int ipCount = 0;
+
+        for (IntWritable value : values) {
+            ipCount += value.get();
+        }
+
+        // 결과 파일에 저장할 때만 IP를 문자로 변환함
+        // IPv4Writable.toString()은 String을 만들기 때문에 재사용하는 배열과 Text 객체로 변환함
+        outKey.set(ipBuffer, 0, AccessLogParser.formatIp(key.get(), ipBuffer));
+        result.set(ipCount);
+
+        context.write(outKey, result);
+
+    }
+
+}
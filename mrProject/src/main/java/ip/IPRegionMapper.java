@@ -0,0 +1,80 @@
+package ip;
+
+import common.cache.IPRangeTable;
+import common.mapreduce.CountMapper;
+import common.parser.AccessLogParser;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
+
+import java.io.IOException;
+
+/**
+ * 로그의 IP를 분산 캐시에 올린 IP 대역 표(IPRangeTable)로 조인하여 지역별 빈도 수를 세는 Mapper(Map-side Replicated Join)
+ * IP 대신 지역 이름을 키로 전달하기 때문에, 리듀서(IPCountReducer)는 그대로 지역별 빈도 수를 합침
+ *
+ * 지역 수는 IP 수보다 훨씬 적기 때문에 Driver 파일에서 In-Mapper Combining을 사용하도록 설정함
+ */
+public class IPRegionMapper extends CountMapper<LongWritable, Text> {
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // 분산 캐시에 올린 IP 대역 표
+    private IPRangeTable ranges;
+
+    // IPv4 형태가 아니라서 대역을 찾지 못한 로그 수와 IP 대역 표에 없는 IP의 로그 수
+    private Counter invalidCounter;
+    private Counter unmatchedCounter;
+
+    /**
+     * 분산 캐시에 올린 IP 대역 표 가져오기
+     * 표는 JVM마다 1번만 만들어지기 때문에 같은 JVM의 다음 태스크는 파일을 다시 읽지 않음
+     */
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.ranges = IPRangeTable.get(context);
+
+        if (this.ranges == null) {
+            throw new IllegalStateException("IP 대역 표 파일을 분산 캐시에 올려야 합니다.");
+        }
+
+        // 레코드마다 Counter를 찾지 않도록 1번만 가져옴
+        this.invalidCounter = context.getCounter("ipCount", "invalid");
+        this.unmatchedCounter = context.getCounter("ipCount", "unmatched");
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값(로그 한 줄 저장됨)
+        // ex) 10.223.157.186 - - [15/Jul/2009:14:58:59 -0700] "GET / HTTP/1.1" 403 202
+        // 파서가 IP(10.223.157.186)를 읽으면서 32비트 정수로 변환함
+        if (!parser.parse(value)) {
+            return;
+        }
+
+        // 호스트 이름 등 IPv4 형태가 아닌 값은 대역을 찾을 수 없어서 Counter로만 기록함
+        if (!parser.isIpValid()) {
+            invalidCounter.increment(1);
+            return;
+        }
+
+        // 정렬된 대역 배열에서 이진 탐색으로 지역 찾기
+        int region = ranges.lookup(parser.getIp());
+
+        if (region < 0) {
+            unmatchedCounter.increment(1);
+            return;
+        }
+
+        // 지역 이름(예 : internal)과 빈도 수(1)를 세기(지역 이름 바이트는 표의 배열을 그대로 사용)
+        count(context, ranges.getRegionBytes(), ranges.regionStart(region), ranges.regionLength(region));
+
+    }
+
+}
@@ -1,8 +1,10 @@
 package maponly;
 
+import common.cache.CachedDictionary;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
@@ -16,11 +18,25 @@ import org.apache.hadoop.util.ToolRunner;
 @Log4j
 public class ImageCount extends Configuration implements Tool {
 
+    // 확장자별 요청 수를 기록하는 Counter 그룹 이름
+    public static final String COUNTER_GROUP = "imageCount";
+
+    // 확장자 표(쉼표로 구분)를 저장하는 Configuration 변수 이름과 기본 값
+    public static final String EXTENSIONS = "extensions";
+    public static final String DEFAULT_EXTENSIONS = "jpg,jpeg,gif,png,bmp,ico,svg,webp";
+
+    // 확장자 표에 없는 확장자를 매퍼마다 따로 세는 최대 수를 저장하는 Configuration 변수 이름과 기본 값
+    // 표에 없는 확장자는 Counter가 아닌 결과 파일에 저장되기 때문에 잡의 Counter 수와 관계없음
+    public static final String MAX_EXTENSIONS = "maxExtensions";
+    public static final int DEFAULT_MAX_EXTENSIONS = 32;
+
     // 맵리듀스 실행 함수
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석 결과가 저장될 파일(폴더) 1개만 받음
-        if (args.length != 1) {
+        // 두 번째 파라미터로 하둡분산파일시스템에 저장된 IP 차단 목록 파일을 입력할 수 있음(선택, 사용하지 않으면 -)
+        // 세 번째 파라미터로 확장자 표를 쉼표로 구분하여 입력할 수 있음(선택) ex) jpg,gif,png
+        if (args.length < 1 || args.length > 3) {
             System.out.printf("분석 결과가 저장될 폴더를 입력해야 합니다.");
             System.exit(-1);
         }
@@ -39,6 +55,10 @@ public class ImageCount extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "Map Only Test");
 
+        // 확장자 표와 표에 없는 확장자를 따로 세는 최대 수
+        configuration.set(EXTENSIONS, DEFAULT_EXTENSIONS);
+        configuration.setInt(MAX_EXTENSIONS, DEFAULT_MAX_EXTENSIONS);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
@@ -67,6 +87,13 @@ public class ImageCount extends Configuration implements Tool {
 
         log.info("aapName : " + appName);
 
+        // 확장자 표 -- 세 번째 파라미터(선택)
+        if (args.length == 3) {
+            conf.set(EXTENSIONS, args[2]);
+        }
+
+        log.info("extensions : " + conf.get(EXTENSIONS));
+
         // 맵리듀스 실행을 위한 잡 객체를 가져오기
         // 하둡이 실행되면, 기본적으로 잡 객체를 메모리에 올림
         Job job = Job.getInstance(conf);
@@ -83,6 +110,12 @@ public class ImageCount extends Configuration implements Tool {
         // 메모리 사용량은 증가하지만, 처리 속도는 향상됨
         job.addCacheFile(new Path(analysisFile).toUri());
 
+        // IP 차단 목록(크롤러, 모니터링 서버 등 분석에서 제외할 IP) 파일 -- 두 번째 파라미터(선택)
+        // 분산 캐시에 올리면, 매퍼가 setup 함수에서 JVM마다 1번만 읽어서 Shuffle and Sort로 보내기 전에 걸러냄
+        if (args.length >= 2 && !"-".equals(args[1])) {
+            CachedDictionary.addToJob(job, CachedDictionary.IP_BLOCKLIST, new Path(args[1]));
+        }
+
         // 분석할 폴더(파일) -- 메모리에 올라간 /access_log 파일명 작성함(첫 번째 파라미터)
         // 메모리에 존재하면, 그 파일을 먼저 받음
         FileInputFormat.setInputPaths(job, new Path(analysisFile));
@@ -102,20 +135,13 @@ public class ImageCount extends Configuration implements Tool {
         if (success) {
 
             // 맵리듀스의 Counter는 맵리듀스가 실행된 결과에 대한 보고를 위해 활용하는 영역
-            // 맵 분석 결과를 Counter 영역에 저장
-
-            // jpg를 요청한 URL 수
-            long jpg = job.getCounters().findCounter("imageCount", "jpg").getValue();
-
-            // gif를 요청한 URL 수
-            long gif = job.getCounters().findCounter("imageCount", "gif").getValue();
-
-            // jpg와 gif를 제외한 다른 확장자를 요청한 URL 수
-            long other = job.getCounters().findCounter("imageCount", "other").getValue();
-
-            log.info("jpg : " + jpg);
-            log.info("gif : " + gif);
-            log.info("other : " + other);
+            // 맵 분석 결과(확장자별 요청 수)를 Counter 영역에 저장
+            // 확장자 표에 있는 확장자 : 확장자 이름, 표에 없는 확장자 : other,
+            // 확장자가 없는 URI : none, IP 차단 목록에 있어서 세지 않은 요청 : blocked
+            // 표에 없는 확장자별 요청 수는 분석 결과 폴더의 결과 파일에 매퍼마다 저장됨(확장자별로 저장하지 못한 요청 수 : .overflow)
+            for (Counter counter : job.getCounters().getGroup(COUNTER_GROUP)) {
+                log.info(counter.getName() + " : " + counter.getValue());
+            }
 
             return 0;
 
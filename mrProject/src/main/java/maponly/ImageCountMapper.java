@@ -1,8 +1,14 @@
 package maponly;
 
+import common.cache.CachedDictionary;
+import common.collect.BytesIntHashMap;
+import common.parser.AccessLogParser;
+import common.parser.ExtensionTable;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
@@ -11,8 +17,78 @@ import java.io.IOException;
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
  * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
  * Mapper 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ * 리듀서를 생성하지 않기 때문에 매퍼가 전달한 (확장자, 요청 수)가 그대로 결과 파일(part-m-00000 등)에 저장됨
+ *
+ * 요청 URI의 확장자별 요청 수를 Counter(imageCount 그룹)에 기록함
+ *  - 확장자 표(Driver 파일의 extensions 값)에 있는 확장자 : 확장자 이름의 Counter ex) jpg
+ *  - 표에 없는 확장자 : other Counter
+ *  - 확장자가 없는 URI : none Counter
+ * Counter는 setup 함수에서 모두 만들기 때문에 잡의 Counter 수는 확장자 표의 크기로 정해짐(mapreduce.job.counters.max 제한)
+ *
+ * 표에 없는 확장자는 Counter 대신 확장자(소문자)별 요청 수를 해시 테이블에서 합친 후 cleanup 함수에서 결과 파일에 저장함
+ *  - 결과 파일에는 "확장자 요청 수" 형태로 매퍼마다 저장되기 때문에, 같은 확장자가 여러 파일에 나올 수 있음 ex) php	12
+ *  - 해시 테이블은 매퍼마다 maxExtensions개의 확장자까지만 저장하고, 그 뒤로 처음 본 확장자의 요청 수는 .overflow로 합쳐서 저장함
+ *  - 확장자에는 점(.)이 들어갈 수 없기 때문에(AccessLogParser.findUriExtension 참고) .overflow는 실제 확장자와 겹치지 않음
+ *  - other Counter는 표에 없는 확장자의 전체 요청 수이고, .overflow는 그중 확장자별로 저장하지 못한 요청 수임
  */
-public class ImageCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> { // 리듀서를 생성하지 않기 때문에 뒤에 Text, IntWritable 데이터 타입은 뭘 써도 상관없음
+public class ImageCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // 분산 캐시에 올린 IP 차단 목록(Driver 파일에서 올리지 않았으면 null)
+    private CachedDictionary blocklist;
+
+    // 확장자 표와 확장자 번호별 Counter(레코드마다 Counter를 찾지 않도록 setup 함수에서 1번만 가져옴)
+    private ExtensionTable extensions;
+    private Counter[] extensionCounters;
+
+    // 표에 없는 확장자(소문자)별 요청 수
+    private final BytesIntHashMap unknownCounts = new BytesIntHashMap(64);
+
+    // 해시 테이블에 저장하지 못한 확장자의 요청 수를 결과 파일에 저장할 때 사용하는 키(실제 확장자와 겹치지 않음)
+    static final String OVERFLOW_KEY = ".overflow";
+
+    // 해시 테이블에 저장하지 못한(maxExtensions개를 넘은) 확장자의 요청 수
+    private int overflowCount;
+
+    // 표에 없는 확장자를 따로 세는 최대 수(매퍼마다)
+    private int maxExtensions;
+
+    // 표에 없는 확장자를 소문자로 바꿀 때 사용하는 배열
+    private final byte[] extensionBuffer = new byte[AccessLogParser.MAX_EXTENSION_LENGTH];
+
+    private Counter otherCounter;
+    private Counter noneCounter;
+    private Counter blockedCounter;
+
+    /**
+     * 분산 캐시에 올린 IP 차단 목록 가져오기
+     * 목록은 JVM마다 1번만 만들어지기 때문에 같은 JVM의 다음 태스크는 파일을 다시 읽지 않음
+     */
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.blocklist = CachedDictionary.get(context, CachedDictionary.IP_BLOCKLIST, false);
+
+        Configuration conf = context.getConfiguration();
+
+        this.extensions = ExtensionTable.of(conf.get(ImageCount.EXTENSIONS, ImageCount.DEFAULT_EXTENSIONS));
+        this.maxExtensions = conf.getInt(ImageCount.MAX_EXTENSIONS, ImageCount.DEFAULT_MAX_EXTENSIONS);
+
+        this.extensionCounters = new Counter[this.extensions.size()];
+
+        for (int i = 0; i < this.extensionCounters.length; i++) {
+            this.extensionCounters[i] = context.getCounter(ImageCount.COUNTER_GROUP, this.extensions.name(i));
+        }
+
+        this.otherCounter = context.getCounter(ImageCount.COUNTER_GROUP, "other");
+        this.noneCounter = context.getCounter(ImageCount.COUNTER_GROUP, "none");
+        this.blockedCounter = context.getCounter(ImageCount.COUNTER_GROUP, "blocked");
+
+    }
 
     /**
      * 부모 Mapper 자바 파일에 작성된 map 함수를 덮어쓰기(Override) 수행
@@ -23,33 +99,82 @@ public class ImageCountMapper extends Mapper<LongWritable, Text, Text, IntWritab
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
 
         // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
-        String[] fields = value.toString().split("\""); // 큰따옴표("")를 기준으로 나눔
-        // fields[0] : "96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] ", fields[1] : "GET /cat.jpg HTTP/1.1", fields[2] : " 200 12433"
+        // split()으로 두 번 나누지 않고, 파서가 바이트 배열에서 요청 URI(/cat.jpg) 위치를 찾음
+        if (parser.parse(value) && parser.isRequestValid()) {
+
+            // 차단 목록에 있는 IP(호스트 이름)의 요청은 세지 않음
+            if (blocklist != null && blocklist.contains(parser.getBytes(), parser.getIpStart(), parser.getIpLength())) {
+                blockedCounter.increment(1);
+                return;
+            }
+
+            // URI 전체를 소문자로 바꾸지 않고, 확장자 부분만 대소문자 구분 없이 확장자 표에서 찾음
+            int index = extensions.lookup(parser);
 
-        if (fields.length > 1) {
-            String request = fields[1]; // GET /cat.jpg HTTP/1.1
-            fields = request.split(" "); // request에 있는 값을 공백으로 다시 나눔
-            // fields[0] : "GET", fields[1] : "/cat.jpg", fields[2] : "HTTP/1.1"
+            if (index >= 0) {
+                extensionCounters[index].increment(1);
 
-            if (fields.length > 1) {
+            } else if (index == ExtensionTable.NONE) {
+                noneCounter.increment(1);
 
-                String fileName = fields[1].toLowerCase();
+            } else {
+                otherCounter.increment(1);
+                countUnknown();
 
-                if (fileName.endsWith(".jpg")) {
-                    context.getCounter("imageCount", "jpg").increment(1);
+            }
 
-                } else if (fileName.endsWith(".gif")) {
-                    context.getCounter("imageCount", "gif").increment(1);
+        }
 
-                } else {
-                    context.getCounter("imageCount", "other").increment(1);
+    }
 
-                }
+    /**
+     * 표에 없는 확장자별 요청 수를 결과 파일에 저장하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
 
-            }
+        Text outKey = new Text();
+        IntWritable outValue = new IntWritable();
+
+        byte[] data = unknownCounts.getKeyData();
+
+        for (int i = 0; i < unknownCounts.size(); i++) {
+
+            outKey.set(data, unknownCounts.keyStart(i), unknownCounts.keyLength(i));
+            outValue.set(unknownCounts.value(i));
+
+            context.write(outKey, outValue);
+
+        }
+
+        if (overflowCount > 0) {
+
+            outKey.set(OVERFLOW_KEY);
+            outValue.set(overflowCount);
+
+            context.write(outKey, outValue);
 
         }
 
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 파서가 찾은 표에 없는 확장자의 요청 수 더하기
+     * 처음 본 확장자는 maxExtensions개까지만 해시 테이블에 저장하고, 그 뒤로는 .overflow로 합침
+     */
+    private void countUnknown() {
+
+        int length = ExtensionTable.toLowerCase(parser.getBytes(), parser.getExtensionStart(), parser.getExtensionLength(), extensionBuffer, 0);
+
+        if (unknownCounts.size() >= maxExtensions && unknownCounts.get(extensionBuffer, 0, length) == 0) {
+            overflowCount++;
+            return;
+        }
+
+        unknownCounts.add(extensionBuffer, 0, length, 1);
+
     }
 
 }
@@ -1,6 +1,8 @@
 package mongo;
 
+import common.mapreduce.RecordLog;
 import lombok.extern.log4j.Log4j;
+import mongo.conn.MongoBulkWriter;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.Job;
@@ -39,6 +41,15 @@ public class AccessLog extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "AccessLog MongoDB Test");
 
+        // 레코드별 로그는 태스크마다 처음 10건만 남김(RecordLog 참고)
+        configuration.setInt(RecordLog.RECORD_LOG_FIRST, 10);
+        configuration.setInt(RecordLog.RECORD_LOG_SAMPLE, 0);
+
+        // MongoDB 저장은 1,000건(또는 4MB)씩 묶어서 bulkWrite로 저장하고, 저장을 기다리는 묶음은 최대 4개(MongoBulkWriter 참고)
+        configuration.setInt(MongoBulkWriter.BATCH_SIZE, MongoBulkWriter.DEFAULT_BATCH_SIZE);
+        configuration.setLong(MongoBulkWriter.BATCH_BYTES, MongoBulkWriter.DEFAULT_BATCH_BYTES);
+        configuration.setInt(MongoBulkWriter.QUEUE_BATCHES, MongoBulkWriter.DEFAULT_QUEUE_BATCHES);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
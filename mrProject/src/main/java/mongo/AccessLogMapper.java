@@ -1,18 +1,19 @@
 package mongo;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import common.mapreduce.RecordLog;
+import common.parser.AccessLogParser;
 import lombok.extern.log4j.Log4j;
+import mongo.conn.MongoBulkWriter;
 import mongo.conn.MongoDBConnection;
-import mongo.dto.AccessLogDTO;
+import mongo.dto.AccessLogBsonEncoder;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Mapper;
-import org.bson.Document;
+import org.bson.RawBsonDocument;
 
 import java.io.IOException;
-import java.util.Map;
 
 /**
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
@@ -28,9 +29,30 @@ public class AccessLogMapper extends Mapper<LongWritable, Text, Text, Text> {
     // 로그 파일의 내용을 저장할 MongoDB 컬렉션명
     private String colNm = "ACCESS_LOG";
 
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // 레코드마다 남기는 로그의 수를 제한하는 객체
+    private RecordLog recordLog;
+
+    // 요청 일시, 요청 방법이 없는 로그 수(레코드마다 Counter를 찾지 않도록 setup 함수에서 1번만 가져옴)
+    private Counter noTimeCounter;
+    private Counter noMethodCounter;
+
+    // Document를 묶음 단위로 모아서 백그라운드 쓰레드로 저장하는 객체
+    private MongoBulkWriter<RawBsonDocument> writer;
+
+    // 파서가 분석한 로그 한 줄을 MongoDB에 저장할 BSON 문서로 바로 만드는 객체(모든 레코드에 재사용)
+    private final AccessLogBsonEncoder encoder = new AccessLogBsonEncoder();
+
     @Override
     protected void setup(Mapper<LongWritable, Text, Text, Text>.Context context) throws IOException, InterruptedException {
 
+        this.recordLog = RecordLog.of(context, log);
+
+        this.noTimeCounter = recordLog.counter("noTime");
+        this.noMethodCounter = recordLog.counter("noMethod");
+
         // MongoDB 객체 생성을 통해 MongoDB 접속
         this.mongodb = new MongoDBConnection().getMongoDB();
 
@@ -55,6 +77,10 @@ public class AccessLogMapper extends Mapper<LongWritable, Text, Text, Text> {
             this.mongodb.createCollection(this.colNm); // colNm = "ACCESS_LOG"
         }
 
+        // 저장할 MongoDB 컬렉션은 1번만 가져오고, 레코드마다 insertOne으로 저장하지 않고 묶음 단위로 저장함
+        // DTO와 Document를 거치지 않고 만든 BSON 문서를 그대로 저장하기 위해 RawBsonDocument 타입의 컬렉션으로 가져옴
+        this.writer = MongoBulkWriter.of(context.getConfiguration(), this.mongodb.getCollection(this.colNm, RawBsonDocument.class));
+
     }
 
     /**
@@ -66,50 +92,48 @@ public class AccessLogMapper extends Mapper<LongWritable, Text, Text, Text> {
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
 
         // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
-        String[] fields = value.toString().split(" "); // 공백을 기준으로 나눔
-        // fields[0] : "96.7.4.14", fields[1] : "-", fields[2] : "-", fields[3] : "[24/Apr/2011:04:20:11" 등등
-
-        String ip = fields[0]; // IP 추출; 96.7.4.14
-        String reqTime = ""; // 요청 일시
-
-        if (fields[3].length() > 2) { // 일부 데이터가 요청 일시 값이 누락된 경우가 있어 요청 일시 값이 존재하는 체크
-            reqTime = fields[3].substring(1); // '[' 제외한 요청 일시 추출; 24/Apr/2011:04:20:11
+        // split()으로 나누지 않고, 파서가 바이트 배열에서 각 항목의 위치를 찾음
+        if (!parser.parse(value)) {
+            return;
         }
 
-        String reqMethod = ""; // GET, POST 요청 방법 추출
-
-        if (fields[5].length() > 2) { // 일부 데이터가 요청 일시 값이 누락된 경우가 있어 요청 일시 값이 존재하는 체크
-            reqMethod = fields[5].substring(1); // fields[5] : "GET, '"' 제외한 요청 방법 추출; GET
+        // 일부 데이터가 요청 일시, 요청 방법 값이 누락된 경우가 있어 값이 존재하는지 체크
+        // 값이 없는 로그는 로그 대신 Counter에 기록하고, 빈 문자열로 저장함
+        if (parser.getTimeLength() <= 1) {
+            noTimeCounter.increment(1);
         }
 
-        String reqURI = fields[6]; // fields[6] : /cat.jpg HTTP/1.1", 요청 URI 추출; /cat.jpg HTTP/1.1
-
-        log.info("ip : " + ip);
-        log.info("reqTime : " + reqTime);
-        log.info("reqMethod : " + reqMethod);
-        log.info("reqURI : " + reqURI);
-
-        // 추출한 정보를 저장하기 위해 pDTO 선언 후, 값 저장
-        // IP는 키(key)로 사용하기 때문에 DTO에 저장하지 않음
-        AccessLogDTO pDTO = new AccessLogDTO();
-        pDTO.setIp(ip); // IP 주소
-        pDTO.setReqTime(reqTime); // 요청 일시
-        pDTO.setReqMethod(reqMethod); // 요청 방법
-        pDTO.setReqURI(reqURI); // 요청 URI
+        if (parser.getMethodLength() == 0) {
+            noMethodCounter.increment(1);
+        }
 
-        // 저장할 MongoDB 컬렉션 가져오기
-        MongoCollection<Document> col = this.mongodb.getCollection(this.colNm);
+        // 레코드마다 로그를 남기지 않고, Driver 파일에서 정한 일부 레코드만 1줄로 남김
+        // String은 로그를 남기는 레코드에서만 만듦
+        if (recordLog.sample()) {
+            log.info("ip : " + parser.ipAsString() + ", reqTime : " + parser.timeAsString()
+                    + ", reqMethod : " + parser.methodAsString() + ", reqURI : " + parser.uriAsString());
+        }
 
-        // MongoDB에 저장하기
-        col.insertOne(new Document(new ObjectMapper().convertValue(pDTO, Map.class)));
+        // IP, 요청 일시, 요청 방법, 요청 URI를 BSON 문서로 바로 만들어서 MongoDB에 저장하기(저장이 끝나기를 기다리지 않음)
+        RawBsonDocument doc = encoder.encode(parser);
 
-        col = null;
+        writer.add(doc, encoder.getLength());
 
     }
 
     @Override
     protected void cleanup(Mapper<LongWritable, Text, Text, Text>.Context context) throws IOException, InterruptedException {
 
+        // 남은 묶음을 모두 저장하고, 저장한 Document 수와 묶음 수를 Counter에 기록
+        writer.close();
+
+        context.getCounter("mongo", "inserted").increment(writer.getWritten());
+        context.getCounter("mongo", "batches").increment(writer.getBatches());
+
+        if (recordLog.isEnabled()) {
+            log.info(recordLog.summary());
+        }
+
         // MongoDB 접속 해제
         this.mongodb = null;
 
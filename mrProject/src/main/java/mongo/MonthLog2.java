@@ -1,6 +1,10 @@
 package mongo;
 
+import common.mapreduce.RecordLog;
+import common.mapreduce.WeightedBucketPartitioner;
 import lombok.extern.log4j.Log4j;
+import mongo.conn.MongoBulkWriter;
+import mongo.dto.AccessLogWritable;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Text;
@@ -9,6 +13,8 @@ import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.hadoop.util.Tool;
 import org.apache.hadoop.util.ToolRunner;
+import partition.TimeBucket;
+import partition.TimeBucketSampler;
 
 /**
  * 맵리듀스를 실행하기 위한 Main 함수가 존재하는 자바 파일
@@ -21,7 +27,8 @@ public class MonthLog2 extends Configuration implements Tool {
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더) 2개 받음
-        if (args.length != 2) {
+        // 세 번째 파라미터로 리듀스 수를 입력할 수 있음(선택)
+        if (args.length != 2 && args.length != 3) {
             log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
             System.exit(-1);
         }
@@ -40,6 +47,17 @@ public class MonthLog2 extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "MonthLog2 MongoDB Test");
 
+        // 매퍼가 레코드마다 남기는 로그는 태스크의 처음 10건만 남기고, 이후에는 Counter(recordLog 그룹)로만 기록함
+        // 로그를 모두 끄려면 두 값을 0으로, 일정 간격으로 남기려면 recordLogSample 값을 설정함 ex) 10000건마다 1건
+        configuration.setInt(RecordLog.RECORD_LOG_FIRST, 10);
+        configuration.setInt(RecordLog.RECORD_LOG_SAMPLE, 0);
+
+        // 리듀서는 월별 데이터를 모아두지 않고 1,000건(또는 4MB)씩 묶어서 저장함(MongoBulkWriter 참고)
+        // 백그라운드 쓰레드 없이 리듀서 쓰레드에서 바로 저장하려면 mongoQueueBatches 값을 0으로 설정함
+        configuration.setInt(MongoBulkWriter.BATCH_SIZE, MongoBulkWriter.DEFAULT_BATCH_SIZE);
+        configuration.setLong(MongoBulkWriter.BATCH_BYTES, MongoBulkWriter.DEFAULT_BATCH_BYTES);
+        configuration.setInt(MongoBulkWriter.QUEUE_BATCHES, MongoBulkWriter.DEFAULT_QUEUE_BATCHES);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
@@ -99,17 +117,26 @@ public class MonthLog2 extends Configuration implements Tool {
         // 리듀스를 여러 개 분산해서 실행하기 위해 사용되는 파티셔너 객체 설정
         job.setPartitionerClass(MonthLog2Partitioner.class);
 
-        // 1년은 12개월이기 때문에 리듀스 12개를 생성하여 리듀스 1개당 1개월씩 처리
-        // 예를 들어 1월은 0번 리듀스, 2월은 1번 리듀스가 데이터 처리함
-        job.setNumReduceTasks(12);
+        // 리듀스 수 -- 세 번째 파라미터(선택), 입력하지 않으면 1년의 개월 수인 12개
+        int numReduceTasks = args.length == 3 ? Integer.parseInt(args[2]) : 12;
+
+        job.setNumReduceTasks(numReduceTasks);
+
+        // 잡을 실행하기 전에 입력 파일을 샘플링하여 월별 로그 수를 추정하고, 리듀서 배정표 만들기
+        // 로그가 많은 월은 여러 리듀서에 나눠서 배정하고, 로그가 적은 월은 한 리듀서에 모아서 배정함
+        long[] weights = TimeBucketSampler.sample(job, TimeBucket.MONTH);
+        String bucketReducers = WeightedBucketPartitioner.configure(job.getConfiguration(), weights, numReduceTasks);
+
+        log.info("bucketReducers : " + bucketReducers);
 
         // Mapper에서 Shuffle and Sort로 전달하는 키(key)의 데이터 타입
         // Mapper에서 전달하는 값과 Reducer에서 전달하는 값의 데이터 타입이 다르기 때문에 별도로 선언
         job.setMapOutputKeyClass((Text.class));
 
         // Mapper에서 Shuffle and Sort로 전달하는 값(value)의 데이터 타입
+        // JSON 문자열(Text) 대신 IP, 요청 일시를 숫자로 저장하는 AccessLogWritable을 사용하여 전달하는 데이터 크기를 줄임
         // Mapper에서 전달하는 값과 Reducer에서 전달하는 값의 데이터 타입이 다르기 때문에 별도로 선언
-        job.setMapOutputValueClass(Text.class);
+        job.setMapOutputValueClass(AccessLogWritable.class);
 
         // 결과 파일을 생성하지 않기 때문에 setOutputKeyClass, setOutputValueClass 필요 없음
 
@@ -1,49 +1,39 @@
 package mongo;
 
+import common.mapreduce.WeightedBucketPartitioner;
+import common.parser.AccessLogParser;
+import mongo.dto.AccessLogWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Partitioner;
-
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Mapper에서 Shuffle and Sort로 데이터를 전달할 때 실행됨
+ *
+ * 기존에는 월마다 리듀서 1개(1월은 0번 리듀스, 2월은 1번 리듀스 등)를 HashMap으로 매칭해서
+ * 로그가 많은 월을 맡은 리듀서가 가장 늦게 끝났음
+ * Driver 파일에서 TimeBucketSampler로 샘플링한 월별 로그 수로 배정표(bucketReducers)를 만들면,
+ * 로그가 많은 월은 여러 리듀서가 값(AccessLogWritable)의 해시 값으로 나눠서 처리함
+ *
+ * 같은 월을 여러 리듀서가 처리해도 모두 같은 컬렉션(LOG_01 등)에 저장하기 때문에 결과를 다시 합칠 필요 없음
  */
-public class MonthLog2Partitioner extends Partitioner<Text, Text> {
-
-    // Mapper 함수에서 받는 월(months)과 리듀서를 매칭하기 위한 객체
-    // 1월은 0번 리듀스, 2월은 1번 리듀스 등 이런 형태로 매칭
-    Map<String, Integer> months = new HashMap<>();
-
-    // MonthLog2Partitioner() 생성자에 매칭 정보 저장
-    public MonthLog2Partitioner() {
-        this.months.put("Jan", 0);
-        this.months.put("Feb", 1);
-        this.months.put("Mar", 2);
-        this.months.put("Apr", 3);
-        this.months.put("May", 4);
-        this.months.put("Jun", 5);
-        this.months.put("Jul", 6);
-        this.months.put("Aug", 7);
-        this.months.put("Sep", 8);
-        this.months.put("Oct", 9);
-        this.months.put("Nov", 10);
-        this.months.put("Dec", 11);
-    }
+public class MonthLog2Partitioner extends WeightedBucketPartitioner<Text, AccessLogWritable> {
 
     /**
-     * Partitioner 객체에 정의된 함수를 오버라이드
+     * 키(key)의 월(Jan, Feb, Mar 등)을 월 번호(0~11)로 변환
      *
-     * @param key Mapper에서 Shuffle and Sort로 전달한 키(key); 월(reqMonth) 값이 들어옴
-     * @param value Mapper에서 Shuffle and Sort로 전달한 값(value); JSON 문자열 값이 들어옴
-     * @param numReducerTasks 리듀서 객체 번호(0부터 시작; LOG_01 - 1월, LOG_02 - 2월, LOG_03 - 3월 등등)
+     * @param key   Mapper에서 Shuffle and Sort로 전달한 키(key); 월(reqMonth) 값이 들어옴
+     * @param value Mapper에서 Shuffle and Sort로 전달한 값(value); IP, 요청 일시, 요청 방법, 요청 URI 값이 들어옴
      */
     @Override
-    public int getPartition(Text key, Text value, int numReducerTasks) {
+    protected int bucket(Text key, AccessLogWritable value) {
 
-        // 실행될 리듀스 번호를 키(key) 값인 월(Jan, Feb, Mar 등)에 따라 매핑
-        return months.get(key.toString());
+        // String으로 변환하지 않고 바이트 배열에서 바로 비교
+        return key.getLength() == 3 ? AccessLogParser.findMonth(key.getBytes(), 0) : -1;
 
     }
 
+    @Override
+    protected int spread(Text key, AccessLogWritable value) {
+        return value.hashCode();
+    }
+
 }
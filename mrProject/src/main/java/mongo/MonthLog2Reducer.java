@@ -1,30 +1,28 @@
 package mongo;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import lombok.extern.log4j.Log4j;
+import mongo.conn.MongoBulkWriter;
 import mongo.conn.MongoDBConnection;
-import mongo.dto.AccessLogDTO;
+import mongo.dto.AccessLogBsonEncoder;
+import mongo.dto.AccessLogWritable;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Reducer;
-import org.bson.Document;
+import org.bson.RawBsonDocument;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
  * 리듀스 역할을 수행하기 위해서는 Reducer 자바 파일을 상속받아야 함
- * Reducer 파일의 앞의 2개 데이터 타입(Text, Text)은 Shuffle and Sort에 보낸 데이터의 키(key)와 값(value)의 데이터 타입
+ * Reducer 파일의 앞의 2개 데이터 타입(Text, AccessLogWritable)은 Shuffle and Sort에 보낸 데이터의 키(key)와 값(value)의 데이터 타입
  * 보통 Mapper에서 보낸 데이터 타입과 동일함
  * Reducer 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 결과 파일 생성에 사용될 키(key)와 값(value)
  */
 @Log4j
-public class MonthLog2Reducer extends Reducer<Text, Text, Text, IntWritable> {
+public class MonthLog2Reducer extends Reducer<Text, AccessLogWritable, Text, IntWritable> {
 
     // MongoDB 접속 및 제어를 위한 객체
     private MongoDatabase mongodb;
@@ -33,6 +31,9 @@ public class MonthLog2Reducer extends Reducer<Text, Text, Text, IntWritable> {
     // 키(key) : 월(Jan, Feb, Mar 등), 값(value) : 컬렉션명(LOG_01, LOG_02 등)
     private Map<String, String> months = new HashMap<>();
 
+    // 받은 값을 MongoDB에 저장할 BSON 문서로 바로 만드는 객체(모든 레코드에 재사용)
+    private final AccessLogBsonEncoder encoder = new AccessLogBsonEncoder();
+
     // MonthLog2Reducer() 생성자에 매칭 정보 저장
     // 생성자를 통해 메모리에 올리기
     // 리듀서가 총 12개 생성되기 때문에 12개가 메모리에 생성됨
@@ -53,7 +54,7 @@ public class MonthLog2Reducer extends Reducer<Text, Text, Text, IntWritable> {
     }
 
     @Override
-    protected void setup(Reducer<Text, Text, Text, IntWritable>.Context context) throws IOException, InterruptedException {
+    protected void setup(Reducer<Text, AccessLogWritable, Text, IntWritable>.Context context) throws IOException, InterruptedException {
 
         // MongoDB 객체 생성을 통해 MongoDB 접속
         this.mongodb = new MongoDBConnection().getMongoDB();
@@ -102,9 +103,7 @@ public class MonthLog2Reducer extends Reducer<Text, Text, Text, IntWritable> {
      * Reducer 객체는 기본값이 1개로 1개의 쓰레드로 처리함
      */
     @Override
-    public void reduce(Text key, Iterable<Text> values, Context context) throws IOException, InterruptedException {
-
-        List<Document> pList = new ArrayList<>();
+    public void reduce(Text key, Iterable<AccessLogWritable> values, Context context) throws IOException, InterruptedException {
 
         // 저장할 MongoDB 컬렉션 이름 가져오기(LOG_01 ~ LOG_12)
         String colNm = this.months.get(key.toString());
@@ -113,43 +112,33 @@ public class MonthLog2Reducer extends Reducer<Text, Text, Text, IntWritable> {
         log.info("colNm : " + colNm);
 
         // 저장을 위한 컬렉션 정보 가져오기(LOG_01 ~ LOG_12)
-        MongoCollection<Document> col = mongodb.getCollection(colNm);
-
-        // Shuffle and Sort로 인해 월별로 데이터들의 값들이 List 구조로 저장됨
-        // 파티셔너를 통해 같은 월에 해당되는 JSON 문자열만 넘어옴
-        // Jan : {'JSON 문자열', 'JSON 문자열', 'JSON 문자열', 'JSON 문자열', 'JSON 문자열', 'JSON 문자열'} => Jan, 6(Text, Text의 데이터 타입)
-        for (Text value : values) {
-
-            String json = value.toString(); // Text 타입의 JSON 문자열을 String 타입으로 변경
+        // 한 달치 데이터를 List에 모두 모은 뒤 insertMany로 저장하면 데이터가 많은 달에 리듀서 메모리가 부족함(OutOfMemoryError)
+        // values를 읽는 동안 정해진 크기의 묶음으로 바로 저장하기 때문에 메모리 사용량은 달의 데이터 양과 관계없음
+        MongoBulkWriter<RawBsonDocument> writer = MongoBulkWriter.of(context.getConfiguration(),
+                mongodb.getCollection(colNm, RawBsonDocument.class));
 
-            // JSON 문자열로 받은 데이터를 DTO로 변환
-            // JSON 문자열 -> DTO
-            AccessLogDTO pDTO = new ObjectMapper().readValue(json, AccessLogDTO.class);
+        // 저장 중 예외가 발생해도 close()가 항상 실행되어 저장 쓰레드가 남지 않도록 try-with-resources 사용
+        // 정상 종료 시에는 close()에서 남은 묶음을 모두 저장함
+        // 저장한 수는 close() 이후에 확정되기 때문에 writer는 try 밖에 선언하고 카운터는 블록 다음에 증가시킴
+        try (MongoBulkWriter<RawBsonDocument> closing = writer) {
 
-            // DTO 데이터를 MongoDB에 저장 가능한 Document로 변환
-            // DTO -> Document
-            Document doc = new Document(new ObjectMapper().convertValue(pDTO, Map.class));
+            // Shuffle and Sort로 인해 월별로 데이터들의 값들이 List 구조로 저장됨
+            // 파티셔너를 통해 같은 월에 해당되는 로그만 넘어옴
+            // Jan : {AccessLogWritable, AccessLogWritable, AccessLogWritable, ...}
+            // 하둡은 values를 읽을 때마다 같은 AccessLogWritable 객체에 다음 값을 읽어서 넘겨줌
+            for (AccessLogWritable value : values) {
 
-            // 서버 메모리를 믿고, 한 번에 저장하기 위해 저장할 데이터를 List에 넣기
-            // InsertMany로 저장하기 위해 List로 저장
-            pList.add(doc);
+                // JSON 문자열, DTO와 Document를 거치지 않고 바로 MongoDB에 저장 가능한 BSON 문서로 변환 후 묶음에 추가
+                RawBsonDocument doc = encoder.encode(value);
 
-            doc = null;
+                closing.add(doc, encoder.getLength());
 
-        }
-
-        // MongoDB에 한 번에 저장할 수 있는 메모리 크기 제한이 있어서 ArrayList에 많은 데이터를 한 번에 저장하면 MongoDB 오류 발생
-
-        int pListSize = pList.size(); // 저장할 전체 레코드 수
-        int blockSize = 50000; // 한 번에 저장할 레코드 수를 5만개로 서정
+            }
 
-        for (int i = 0; i < pListSize; i += blockSize) {
-            // log.info("[" + pColNm + "]" + i + " Block");
-            col.insertMany(new ArrayList<>(pList.subList(i, Math.min(i + blockSize, pListSize))));
         }
 
-        col = null;
-        pList = null;
+        context.getCounter("mongo", "inserted").increment(writer.getWritten());
+        context.getCounter("mongo", "batches").increment(writer.getBatches());
 
     }
 
@@ -0,0 +1,325 @@
+package mongo.conn;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MongoDB에 Document를 묶음(batch) 단위로 모아서 백그라운드 쓰레드로 저장하는 객체
+ *
+ * insertOne()으로 1건씩 저장하면 레코드마다 MongoDB 서버와 통신이 끝날 때까지 기다려야 해서 매퍼가 느려짐
+ *  - add 함수로 받은 Document는 건수(mongoBatchSize) 또는 크기(mongoBatchBytes)가 차면 1개의 묶음이 됨
+ *  - 묶음은 크기가 정해진 큐(mongoQueueBatches)에 넣고, 백그라운드 쓰레드가 순서 없는(unordered) bulkWrite로 저장함
+ *  - 매퍼는 저장이 끝나기를 기다리지 않고 다음 로그를 분석하기 때문에 분석과 네트워크 통신이 동시에 진행됨
+ *  - MongoDB 저장이 느려서 큐가 가득 차면 add 함수가 기다리기 때문에(Backpressure) 메모리가 계속 늘어나지 않음
+ *
+ * mongoQueueBatches를 0으로 정하면 백그라운드 쓰레드를 만들지 않고, 묶음이 찰 때마다 add 함수에서 바로 저장함
+ *  - 어느 경우든 메모리에는 최대 (mongoQueueBatches + 2)개의 묶음만 남기 때문에 저장할 데이터 양과 관계없이 메모리 사용량이 일정함
+ *
+ * cleanup 함수에서 close 함수를 호출하여 남은 묶음을 모두 저장해야 함
+ * 백그라운드 쓰레드에서 오류(Error 포함)가 발생하면 다음 add 또는 close 함수에서 IOException으로 전달됨
+ * 큐에 묶음을 넣을 때는 일정 시간마다 백그라운드 쓰레드가 살아 있는지 확인하기 때문에, 쓰레드가 종료되어도 매퍼가 계속 기다리지 않음
+ *
+ * @param <T> 컬렉션의 Document 타입 ex) Document, RawBsonDocument
+ */
+public class MongoBulkWriter<T> implements Closeable {
+
+    // 1개의 묶음에 넣을 최대 건수를 저장하는 Configuration 변수 이름과 기본 값
+    public static final String BATCH_SIZE = "mongoBatchSize";
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    // 1개의 묶음에 넣을 최대 크기(byte)를 저장하는 Configuration 변수 이름과 기본 값
+    // MongoDB는 1번에 보낼 수 있는 메시지 크기(48MB)가 제한되어 있어서 여유 있게 작게 정함
+    public static final String BATCH_BYTES = "mongoBatchBytes";
+    public static final long DEFAULT_BATCH_BYTES = 4L * 1024L * 1024L;
+
+    // 저장을 기다리는 묶음의 최대 수를 저장하는 Configuration 변수 이름과 기본 값(0이면 백그라운드 쓰레드 없이 바로 저장)
+    public static final String QUEUE_BATCHES = "mongoQueueBatches";
+    public static final int DEFAULT_QUEUE_BATCHES = 4;
+
+    // 큐가 가득 찼을 때 백그라운드 쓰레드의 상태를 다시 확인하기 전까지 기다리는 시간(ms)
+    private static final long OFFER_TIMEOUT_MS = 1000L;
+
+    // 백그라운드 쓰레드에 더 이상 묶음이 없다고 알리는 값(flush 함수는 빈 묶음을 큐에 넣지 않음)
+    private final List<WriteModel<T>> end = Collections.emptyList();
+
+    private final MongoCollection<T> collection;
+
+    private final int batchSize;
+    private final long batchBytes;
+
+    // 저장을 기다리는 묶음(백그라운드 쓰레드를 사용하지 않으면 null)
+    private final BlockingQueue<List<WriteModel<T>>> queue;
+
+    // 지금 모으고 있는 묶음과 크기
+    private List<WriteModel<T>> batch;
+    private long bytes;
+
+    // 묶음을 저장하는 백그라운드 쓰레드(사용하지 않으면 null)
+    private final Thread worker;
+
+    private final BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+
+    // 백그라운드 쓰레드에서 발생한 오류
+    private volatile Throwable error;
+
+    // 저장한 Document 수와 묶음 수
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private boolean closed;
+
+    public MongoBulkWriter(MongoCollection<T> collection, int batchSize, long batchBytes, int queueBatches) {
+
+        if (batchSize <= 0 || batchBytes <= 0 || queueBatches < 0) {
+            throw new IllegalArgumentException("batchSize and batchBytes must be positive, queueBatches must not be negative");
+        }
+
+        this.collection = collection;
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes;
+        this.batch = new ArrayList<>(batchSize);
+
+        if (queueBatches == 0) {
+
+            this.queue = null;
+            this.worker = null;
+
+        } else {
+
+            this.queue = new ArrayBlockingQueue<>(queueBatches);
+
+            this.worker = new Thread(this::drain, "mongo-bulk-writer-" + collection.getNamespace().getCollectionName());
+            this.worker.setDaemon(true);
+            this.worker.start();
+
+        }
+
+    }
+
+    /**
+     * Driver 파일에서 정의한 설정 값으로 만들기
+     */
+    public static <T> MongoBulkWriter<T> of(Configuration conf, MongoCollection<T> collection) {
+        return new MongoBulkWriter<>(collection,
+                conf.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE),
+                conf.getLong(BATCH_BYTES, DEFAULT_BATCH_BYTES),
+                conf.getInt(QUEUE_BATCHES, DEFAULT_QUEUE_BATCHES));
+    }
+
+    /**
+     * 저장할 Document 추가하기
+     *
+     * @param sizeBytes Document의 대략적인 크기(byte); 묶음의 크기를 정할 때 사용 ex) 로그 한 줄의 길이
+     */
+    public void add(T doc, int sizeBytes) throws IOException, InterruptedException {
+
+        this.checkError();
+
+        if (this.closed) {
+            throw new IOException("writer is closed");
+        }
+
+        this.batch.add(new InsertOneModel<>(doc));
+        this.bytes += sizeBytes;
+
+        if (this.batch.size() >= this.batchSize || this.bytes >= this.batchBytes) {
+            this.enqueue();
+        }
+
+    }
+
+    /**
+     * 지금 모으고 있는 묶음을 큐에 넣기(큐가 가득 차면 백그라운드 쓰레드가 저장할 때까지 기다림)
+     */
+    public void flush() throws IOException, InterruptedException {
+
+        this.checkError();
+
+        if (!this.batch.isEmpty()) {
+            this.enqueue();
+        }
+
+    }
+
+    /**
+     * 남은 묶음을 모두 저장하고, 백그라운드 쓰레드 종료하기
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (this.closed) {
+            return;
+        }
+
+        // 이미 저장에 실패했으면 남은 묶음을 저장하지 않고 백그라운드 쓰레드만 종료함
+        if (this.error != null) {
+
+            this.closed = true;
+
+            if (this.worker != null) {
+                this.worker.interrupt();
+            }
+
+            this.checkError();
+
+        }
+
+        try {
+
+            this.flush();
+
+            this.closed = true;
+
+            if (this.worker != null) {
+                this.put(this.end);
+                this.worker.join();
+            }
+
+        } catch (InterruptedException e) {
+
+            this.closed = true;
+
+            if (this.worker != null) {
+                this.worker.interrupt();
+            }
+
+            Thread.currentThread().interrupt();
+
+            throw new IOException("interrupted while writing to MongoDB", e);
+
+        }
+
+        this.checkError();
+
+    }
+
+    /**
+     * 저장한 Document 수
+     */
+    public long getWritten() {
+        return this.written.get();
+    }
+
+    /**
+     * 저장한 묶음 수(bulkWrite 호출 수)
+     */
+    public long getBatches() {
+        return this.batches.get();
+    }
+
+    private void enqueue() throws IOException, InterruptedException {
+
+        if (this.worker == null) {
+
+            // 백그라운드 쓰레드를 사용하지 않으면 바로 저장
+            try {
+                this.write(this.batch);
+            } catch (RuntimeException e) {
+                this.error = e;
+                this.checkError();
+            }
+
+            // 저장한 묶음은 다시 사용(bulkWrite가 끝나면 묶음을 참조하지 않음)
+            this.batch.clear();
+            this.bytes = 0;
+
+            return;
+
+        }
+
+        this.put(this.batch);
+
+        this.batch = new ArrayList<>(this.batchSize);
+        this.bytes = 0;
+
+    }
+
+    /**
+     * 큐에 묶음 넣기
+     * 큐가 가득 차면 기다리되, OFFER_TIMEOUT_MS마다 백그라운드 쓰레드의 오류와 종료 여부를 확인하여
+     * 쓰레드가 더 이상 큐에서 묶음을 꺼내지 않으면 계속 기다리지 않고 IOException을 발생시킴
+     */
+    private void put(List<WriteModel<T>> models) throws IOException, InterruptedException {
+
+        while (!this.queue.offer(models, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+
+            this.checkError();
+
+            if (!this.worker.isAlive()) {
+                throw new IOException("MongoDB writer thread " + this.worker.getName() + " is not running");
+            }
+
+        }
+
+    }
+
+    /**
+     * 백그라운드 쓰레드; 큐에서 묶음을 꺼내서 순서 없는 bulkWrite로 저장함
+     * 오류가 발생한 후에는 add 함수가 큐에서 기다리지 않도록 남은 묶음을 저장하지 않고 꺼내기만 함
+     */
+    private void drain() {
+
+        try {
+
+            while (true) {
+
+                List<WriteModel<T>> next = this.queue.take();
+
+                if (next == this.end) {
+                    break;
+                }
+
+                if (this.error != null) {
+                    continue;
+                }
+
+                // RuntimeException뿐 아니라 Error(OutOfMemoryError 등)도 저장해야 쓰레드가 종료되어도 원인이 전달됨
+                try {
+                    this.write(next);
+                } catch (Throwable e) {
+                    this.error = e;
+                }
+
+            }
+
+        } catch (InterruptedException e) {
+
+            if (this.error == null) {
+                this.error = e;
+            }
+
+        }
+
+    }
+
+    private void write(List<WriteModel<T>> models) {
+
+        this.written.addAndGet(this.collection.bulkWrite(models, this.options).getInsertedCount());
+        this.batches.incrementAndGet();
+
+    }
+
+    private void checkError() throws IOException {
+
+        Throwable e = this.error;
+
+        if (e != null) {
+            throw new IOException("failed to write to MongoDB collection " + this.collection.getNamespace(), e);
+        }
+
+    }
+
+}
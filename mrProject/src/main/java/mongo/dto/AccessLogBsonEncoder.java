@@ -0,0 +1,181 @@
+package mongo.dto;
+
+import common.parser.AccessLogParser;
+import org.bson.RawBsonDocument;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 로그 한 줄의 IP, 요청 일시, 요청 방법, 요청 URI를 MongoDB에 저장할 BSON 문서(RawBsonDocument)로 바로 만드는 객체
+ *
+ * DTO -> ObjectMapper.convertValue(Map) -> Document로 변환하면 레코드마다 리플렉션을 사용하고,
+ * HashMap과 String을 만든 뒤 MongoDB 드라이버가 다시 BSON으로 인코딩함
+ * 이 객체는 파서가 찾은 위치의 바이트를 BSON 형식으로 배열에 바로 써서, 레코드마다 BSON 바이트 배열 1개만 만듦
+ *  - 항목 이름과 순서는 정해져 있음; ip, reqTime, reqMethod, reqURI(모두 문자열, 기존 Document와 같음)
+ *  - ASCII가 아닌 바이트가 있는 항목만 String을 거쳐 UTF-8로 인코딩하기 때문에 저장되는 값은 기존과 같음
+ *
+ * 매퍼, 리듀서마다 1개를 만들어 모든 레코드에 재사용함(쓰레드 간 공유하면 안됨)
+ */
+public class AccessLogBsonEncoder {
+
+    // 항목 번호
+    static final int IP = 0;
+    static final int REQ_TIME = 1;
+    static final int REQ_METHOD = 2;
+    static final int REQ_URI = 3;
+
+    // BSON 문자열 타입
+    private static final byte STRING_TYPE = 0x02;
+
+    // 항목 이름(BSON의 cstring; 끝에 0 바이트 포함)
+    private static final byte[][] NAMES = {
+            cstring("ip"), cstring("reqTime"), cstring("reqMethod"), cstring("reqURI")};
+
+    // BSON 문서를 만드는 배열(로그 한 줄보다 길면 늘림)
+    private byte[] buffer = new byte[512];
+
+    // buffer에 쓴 길이
+    private int position;
+
+    /**
+     * 파서가 분석한 로그 한 줄로 BSON 문서 만들기(map-only 저장에서 사용)
+     * 요청 일시가 없는 로그는 빈 문자열로 저장함
+     */
+    public RawBsonDocument encode(AccessLogParser parser) {
+
+        byte[] b = parser.getBytes();
+
+        this.start();
+
+        this.string(IP, b, parser.getIpStart(), parser.getIpLength());
+
+        // 일부 데이터가 요청 일시 값이 누락된 경우가 있어 요청 일시 값이 존재하는지 체크
+        if (parser.getTimeLength() > 1) {
+            this.string(REQ_TIME, b, parser.getTimeStart(), parser.getTimeLength());
+        } else {
+            this.string(REQ_TIME, b, 0, 0);
+        }
+
+        this.string(REQ_METHOD, b, parser.getMethodStart(), parser.getMethodLength());
+        this.string(REQ_URI, b, parser.getUriStart(), parser.getUriLength());
+
+        return this.finish();
+
+    }
+
+    /**
+     * 리듀서가 받은 값으로 BSON 문서 만들기
+     */
+    public RawBsonDocument encode(AccessLogWritable value) {
+
+        this.start();
+
+        value.writeBson(this);
+
+        return this.finish();
+
+    }
+
+    /**
+     * 마지막으로 만든 BSON 문서의 크기(byte); MongoBulkWriter의 묶음 크기를 정할 때 사용
+     */
+    public int getLength() {
+        return this.position;
+    }
+
+    /**
+     * BSON 문서 시작; 앞의 4바이트는 문서 전체 길이로 finish 함수에서 채움
+     */
+    void start() {
+        this.position = 4;
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 문자열 항목으로 쓰기
+     */
+    void string(int field, byte[] bytes, int start, int length) {
+
+        // ASCII가 아닌 바이트가 있으면 String으로 바꿀 때와 같은 UTF-8 바이트로 변환(잘못된 바이트는 U+FFFD로 바뀜)
+        for (int i = start; i < start + length; i++) {
+
+            if (bytes[i] < 0) {
+
+                byte[] utf8 = new String(bytes, start, length, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+
+                bytes = utf8;
+                start = 0;
+                length = utf8.length;
+
+                break;
+
+            }
+
+        }
+
+        byte[] name = NAMES[field];
+
+        // 타입(1) + 이름 + 문자열 길이(4) + 문자열 + 0(1) + 문서 끝(1)
+        this.ensureCapacity(this.position + 1 + name.length + 4 + length + 2);
+
+        byte[] buf = this.buffer;
+
+        buf[this.position++] = STRING_TYPE;
+
+        System.arraycopy(name, 0, buf, this.position, name.length);
+        this.position += name.length;
+
+        this.writeInt(length + 1);
+
+        System.arraycopy(bytes, start, buf, this.position, length);
+        this.position += length;
+
+        buf[this.position++] = 0;
+
+    }
+
+    /**
+     * BSON 문서 끝; 문서 전체 길이를 채우고, 만든 바이트만 복사하여 RawBsonDocument 만들기
+     * MongoBulkWriter가 저장할 때까지 문서를 가지고 있기 때문에 buffer를 그대로 넘기지 않고 복사함
+     */
+    RawBsonDocument finish() {
+
+        this.buffer[this.position++] = 0;
+
+        int length = this.position;
+
+        this.position = 0;
+        this.writeInt(length);
+        this.position = length;
+
+        return new RawBsonDocument(Arrays.copyOf(this.buffer, length));
+
+    }
+
+    /**
+     * BSON의 int32(little-endian) 쓰기
+     */
+    private void writeInt(int value) {
+
+        byte[] buf = this.buffer;
+
+        buf[this.position++] = (byte) value;
+        buf[this.position++] = (byte) (value >>> 8);
+        buf[this.position++] = (byte) (value >>> 16);
+        buf[this.position++] = (byte) (value >>> 24);
+
+    }
+
+    private void ensureCapacity(int capacity) {
+
+        if (this.buffer.length < capacity) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length * 2));
+        }
+
+    }
+
+    private static byte[] cstring(String name) {
+        return (name + '\0').getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,349 @@
+package mongo.dto;
+
+import common.parser.AccessLogParser;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Mapper에서 Reducer로 로그 한 줄의 IP, 요청 일시, 요청 방법, 요청 URI를 전달하는 값(value) 데이터 타입
+ *
+ * DTO를 JSON 문자열(Text)로 바꿔서 전달하면 레코드마다 ObjectMapper로 변환하고, 항목 이름까지 매번 전달해야 함
+ * 이 객체는 항목 이름 없이 정해진 순서로 직렬화하고, 리듀서에서 JSON을 거치지 않고 바로 BSON 문서로 변환함(AccessLogBsonEncoder)
+ *  - 1바이트 : 아래 항목이 숫자로 저장되었는지 표시하는 값(flags)
+ *  - IP : IPv4 형태면 4바이트 정수, 아니면(호스트 이름 등) 가변 길이(VInt) + 문자열 바이트
+ *  - 요청 일시 : 24/Apr/2011:04:20:11 형태면 초 단위 시간(VLong), 아니면 가변 길이 + 문자열 바이트
+ *  - 요청 방법, 요청 URI : 가변 길이 + 문자열 바이트
+ *
+ * 요청 일시의 초 단위 시간은 로그에 적힌 시각을 그대로 UTC로 계산한 값(시간대 -0400은 원래 저장하지 않음)이며,
+ * 되돌린 문자열이 로그의 문자열과 같은 경우에만 숫자로 저장하기 때문에 MongoDB에 저장되는 값은 JSON으로 전달할 때와 같음
+ *
+ * 매퍼와 리듀서는 이 객체 1개를 모든 레코드에 재사용함
+ */
+public class AccessLogWritable implements Writable {
+
+    // IP를 4바이트 정수로 저장했는지 여부
+    private static final int IP_PACKED = 1;
+
+    // 요청 일시를 초 단위 시간으로 저장했는지 여부
+    private static final int TIME_PACKED = 2;
+
+    // 24/Apr/2011:04:20:11 형태의 요청 일시 길이
+    private static final int TIME_LENGTH = 20;
+
+    // 요청 일시를 되돌릴 때 사용하는 월 이름(Jan ~ Dec)의 바이트
+    private static final byte[][] MONTH_BYTES = new byte[AccessLogParser.MONTH_NAMES.length][];
+
+    static {
+        for (int i = 0; i < MONTH_BYTES.length; i++) {
+            MONTH_BYTES[i] = AccessLogParser.MONTH_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private int flags;
+
+    // IP_PACKED일 때의 32비트 정수 IP
+    private int ip;
+
+    // TIME_PACKED일 때의 초 단위 시간
+    private long time;
+
+    // 숫자로 저장하지 못한 IP, 요청 일시와 요청 방법, 요청 URI(Text의 바이트 배열을 재사용함)
+    private final Text ipText = new Text();
+    private final Text timeText = new Text();
+    private final Text method = new Text();
+    private final Text uri = new Text();
+
+    // IP, 요청 일시를 문자열로 되돌릴 때 사용하는 배열
+    private final byte[] ipBuffer = new byte[15];
+    private final byte[] timeBuffer = new byte[TIME_LENGTH];
+
+    /**
+     * 파서가 분석한 로그 한 줄의 값 저장하기
+     * 요청 일시, 요청 방법이 없는 로그는 빈 문자열로 저장함
+     */
+    public void set(AccessLogParser parser) {
+
+        byte[] b = parser.getBytes();
+
+        this.flags = 0;
+        this.ip = 0;
+        this.time = 0;
+
+        this.ipText.clear();
+        this.timeText.clear();
+
+        if (parser.isIpValid()) {
+            this.flags |= IP_PACKED;
+            this.ip = parser.getIp();
+        } else {
+            this.ipText.set(b, parser.getIpStart(), parser.getIpLength());
+        }
+
+        // 일부 데이터가 요청 일시 값이 누락된 경우가 있어 요청 일시 값이 존재하는지 체크
+        if (parser.getTimeLength() > 1) {
+
+            if (this.packTime(parser)) {
+                this.flags |= TIME_PACKED;
+            } else {
+                this.timeText.set(b, parser.getTimeStart(), parser.getTimeLength());
+            }
+
+        }
+
+        this.method.set(b, parser.getMethodStart(), parser.getMethodLength());
+        this.uri.set(b, parser.getUriStart(), parser.getUriLength());
+
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+
+        out.writeByte(this.flags);
+
+        if ((this.flags & IP_PACKED) != 0) {
+            out.writeInt(this.ip);
+        } else {
+            this.ipText.write(out);
+        }
+
+        if ((this.flags & TIME_PACKED) != 0) {
+            WritableUtils.writeVLong(out, this.time);
+        } else {
+            this.timeText.write(out);
+        }
+
+        this.method.write(out);
+        this.uri.write(out);
+
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+
+        this.flags = in.readByte();
+        this.ip = 0;
+        this.time = 0;
+
+        this.ipText.clear();
+        this.timeText.clear();
+
+        if ((this.flags & IP_PACKED) != 0) {
+            this.ip = in.readInt();
+        } else {
+            this.ipText.readFields(in);
+        }
+
+        if ((this.flags & TIME_PACKED) != 0) {
+            this.time = WritableUtils.readVLong(in);
+        } else {
+            this.timeText.readFields(in);
+        }
+
+        this.method.readFields(in);
+        this.uri.readFields(in);
+
+    }
+
+    /**
+     * IP, 요청 일시, 요청 방법, 요청 URI를 BSON 문서의 항목으로 쓰기(AccessLogBsonEncoder에서 호출)
+     * 숫자로 저장한 IP, 요청 일시는 String을 만들지 않고 배열에 문자열로 되돌려서 씀
+     */
+    void writeBson(AccessLogBsonEncoder encoder) {
+
+        if ((this.flags & IP_PACKED) != 0) {
+            encoder.string(AccessLogBsonEncoder.IP, this.ipBuffer, 0, AccessLogParser.formatIp(this.ip, this.ipBuffer));
+        } else {
+            encoder.string(AccessLogBsonEncoder.IP, this.ipText.getBytes(), 0, this.ipText.getLength());
+        }
+
+        if ((this.flags & TIME_PACKED) != 0) {
+            formatTime(this.time, this.timeBuffer);
+            encoder.string(AccessLogBsonEncoder.REQ_TIME, this.timeBuffer, 0, TIME_LENGTH);
+        } else {
+            encoder.string(AccessLogBsonEncoder.REQ_TIME, this.timeText.getBytes(), 0, this.timeText.getLength());
+        }
+
+        encoder.string(AccessLogBsonEncoder.REQ_METHOD, this.method.getBytes(), 0, this.method.getLength());
+        encoder.string(AccessLogBsonEncoder.REQ_URI, this.uri.getBytes(), 0, this.uri.getLength());
+
+    }
+
+    public String ipAsString() {
+
+        if ((this.flags & IP_PACKED) == 0) {
+            return this.ipText.toString();
+        }
+
+        return new String(this.ipBuffer, 0, AccessLogParser.formatIp(this.ip, this.ipBuffer), StandardCharsets.US_ASCII);
+
+    }
+
+    public String timeAsString() {
+
+        if ((this.flags & TIME_PACKED) == 0) {
+            return this.timeText.toString();
+        }
+
+        formatTime(this.time, this.timeBuffer);
+
+        return new String(this.timeBuffer, 0, TIME_LENGTH, StandardCharsets.US_ASCII);
+
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof AccessLogWritable)) {
+            return false;
+        }
+
+        AccessLogWritable other = (AccessLogWritable) o;
+
+        return this.flags == other.flags && this.ip == other.ip && this.time == other.time
+                && this.ipText.equals(other.ipText) && this.timeText.equals(other.timeText)
+                && this.method.equals(other.method) && this.uri.equals(other.uri);
+
+    }
+
+    /**
+     * 파티셔너가 같은 월의 로그를 여러 리듀서에 나눌 때 사용하는 해시 값
+     */
+    @Override
+    public int hashCode() {
+
+        int h = this.flags;
+
+        h = 31 * h + this.ip;
+        h = 31 * h + Long.hashCode(this.time);
+        h = 31 * h + this.ipText.hashCode();
+        h = 31 * h + this.timeText.hashCode();
+        h = 31 * h + this.method.hashCode();
+        h = 31 * h + this.uri.hashCode();
+
+        return h;
+
+    }
+
+    @Override
+    public String toString() {
+        return this.ipAsString() + " [" + this.timeAsString() + "] " + this.method + " " + this.uri;
+    }
+
+    /**
+     * 파서가 나눈 요청 일시를 초 단위 시간으로 변환하기
+     * 날짜가 올바르지 않거나(31/Feb 등), 되돌린 문자열이 로그와 다르면(한 자리 일 등) false
+     */
+    private boolean packTime(AccessLogParser parser) {
+
+        if (!parser.isTimeValid() || parser.getTimeLength() != TIME_LENGTH) {
+            return false;
+        }
+
+        int year = parser.getYear();
+        int month = parser.getMonth() + 1;
+        int day = parser.getDay();
+
+        if (year > 9999 || day < 1 || day > daysInMonth(year, month)
+                || parser.getHour() > 23 || parser.getMinute() > 59 || parser.getSecond() > 59) {
+            return false;
+        }
+
+        long seconds = daysFromCivil(year, month, day) * 86400L
+                + parser.getHour() * 3600L + parser.getMinute() * 60L + parser.getSecond();
+
+        formatTime(seconds, this.timeBuffer);
+
+        // 되돌린 문자열과 로그의 문자열 비교
+        byte[] b = parser.getBytes();
+        int start = parser.getTimeStart();
+
+        for (int i = 0; i < TIME_LENGTH; i++) {
+            if (this.timeBuffer[i] != b[start + i]) {
+                return false;
+            }
+        }
+
+        this.time = seconds;
+
+        return true;
+
+    }
+
+    /**
+     * 초 단위 시간을 24/Apr/2011:04:20:11 형태로 buf 배열에 저장하기
+     */
+    private static void formatTime(long seconds, byte[] buf) {
+
+        long days = Math.floorDiv(seconds, 86400L);
+        int secondOfDay = (int) Math.floorMod(seconds, 86400L);
+
+        // 1970-01-01부터의 일 수를 년, 월, 일로 변환(그레고리력)
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        byte[] name = MONTH_BYTES[month - 1];
+
+        writeDigits(buf, 0, day, 2);
+        buf[2] = '/';
+        buf[3] = name[0];
+        buf[4] = name[1];
+        buf[5] = name[2];
+        buf[6] = '/';
+        writeDigits(buf, 7, year, 4);
+        buf[11] = ':';
+        writeDigits(buf, 12, secondOfDay / 3600, 2);
+        buf[14] = ':';
+        writeDigits(buf, 15, secondOfDay / 60 % 60, 2);
+        buf[17] = ':';
+        writeDigits(buf, 18, secondOfDay % 60, 2);
+
+    }
+
+    /**
+     * 년, 월(1~12), 일을 1970-01-01부터의 일 수로 변환(그레고리력)
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097L + dayOfEra - 719468;
+
+    }
+
+    private static int daysInMonth(int year, int month) {
+
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        }
+
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+
+    }
+
+    private static void writeDigits(byte[] buf, int offset, int value, int digits) {
+
+        for (int i = digits - 1; i >= 0; i--) {
+            buf[offset + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+    }
+
+}
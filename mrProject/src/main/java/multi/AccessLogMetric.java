@@ -0,0 +1,151 @@
+package multi;
+
+import common.parser.AccessLogParser;
+import common.parser.ExtensionTable;
+import partition.TimeBucket;
+
+/**
+ * 로그 한 줄을 1번만 분석하여 함께 계산하는 지표(Metric)
+ * 지표 이름은 명령행 파라미터, MultipleOutputs의 이름(named output), 결과 폴더 이름으로 사용됨; ex) 분석 결과 폴더/hour/part-r-00000
+ *
+ * IP : IP(호스트 이름)별 빈도 수 -> ip.IPCount
+ * HOUR : 시간대(00~23)별 빈도 수 -> partition.TimeLog
+ * MONTH : 월(Jan~Dec)별 빈도 수 -> partition.MonthLog
+ * STATUS : 전송 결과 코드(200, 404 등)별 빈도 수 -> success.ResultCount
+ * EXT : 요청 URI의 확장자(jpg, gif 등, 소문자)별 빈도 수 -> maponly.ImageCount; 확장자가 없으면 "-"
+ */
+public enum AccessLogMetric {
+
+    IP("ip") {
+        @Override
+        int write(AccessLogParser parser, byte[] buf, int offset) {
+
+            System.arraycopy(parser.getBytes(), parser.getIpStart(), buf, offset, parser.getIpLength());
+
+            return parser.getIpLength();
+
+        }
+    },
+
+    HOUR("hour") {
+        @Override
+        int write(AccessLogParser parser, byte[] buf, int offset) {
+            return writeBucket(TimeBucket.HOUR, parser, buf, offset);
+        }
+    },
+
+    MONTH("month") {
+        @Override
+        int write(AccessLogParser parser, byte[] buf, int offset) {
+            return writeBucket(TimeBucket.MONTH, parser, buf, offset);
+        }
+    },
+
+    STATUS("status") {
+        @Override
+        int write(AccessLogParser parser, byte[] buf, int offset) {
+
+            int status = parser.getStatus();
+
+            if (status < 0) {
+                return -1;
+            }
+
+            // 전송 결과 코드를 숫자 문자로 변환(String을 만들지 않음)
+            int length = 0;
+
+            do {
+                buf[offset + length++] = (byte) ('0' + status % 10);
+                status /= 10;
+            } while (status > 0);
+
+            // 뒤에서부터 채웠기 때문에 순서 뒤집기
+            for (int i = 0, j = length - 1; i < j; i++, j--) {
+                byte b = buf[offset + i];
+                buf[offset + i] = buf[offset + j];
+                buf[offset + j] = b;
+            }
+
+            return length;
+
+        }
+    },
+
+    EXT("ext") {
+        @Override
+        int write(AccessLogParser parser, byte[] buf, int offset) {
+
+            if (!parser.isRequestValid()) {
+                return -1;
+            }
+
+            if (!parser.findUriExtension()) {
+                buf[offset] = '-';
+                return 1;
+            }
+
+            // 확장자는 영문 소문자로 변환하여 세기(.JPG와 .jpg는 같은 확장자)
+            return ExtensionTable.toLowerCase(parser.getBytes(), parser.getExtensionStart(), parser.getExtensionLength(), buf, offset);
+
+        }
+    };
+
+    // 지표 이름
+    private final String metricName;
+
+    // MultipleOutputs의 결과 파일 경로(baseOutputPath); ex) hour/part
+    private final String outputPath;
+
+    AccessLogMetric(String metricName) {
+        this.metricName = metricName;
+        this.outputPath = metricName + "/part";
+    }
+
+    /**
+     * 파서가 분석한 로그 한 줄의 지표 키를 배열에 쓰기
+     * 배열은 offset부터 로그 한 줄 길이만큼의 공간이 있어야 함
+     *
+     * @return 쓴 길이, 로그에 해당 값이 없으면 -1
+     */
+    abstract int write(AccessLogParser parser, byte[] buf, int offset);
+
+    public String metricName() {
+        return this.metricName;
+    }
+
+    public String outputPath() {
+        return this.outputPath;
+    }
+
+    /**
+     * 이름으로 지표 찾기 ex) hour -> HOUR
+     */
+    public static AccessLogMetric of(String metricName) {
+
+        for (AccessLogMetric metric : values()) {
+            if (metric.metricName.equals(metricName.trim())) {
+                return metric;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown metric : " + metricName);
+
+    }
+
+    private static int writeBucket(TimeBucket timeBucket, AccessLogParser parser, byte[] buf, int offset) {
+
+        int bucket = timeBucket.bucketOf(parser);
+
+        if (bucket < 0) {
+            return -1;
+        }
+
+        byte[] label = timeBucket.label(bucket);
+
+        System.arraycopy(label, 0, buf, offset, label.length);
+
+        return label.length;
+
+    }
+
+}
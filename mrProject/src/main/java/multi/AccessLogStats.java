@@ -0,0 +1,187 @@
+package multi;
+
+import common.cache.CachedDictionary;
+import common.mapreduce.CountMapper;
+import common.mapreduce.ReduceTasks;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+import java.util.EnumSet;
+
+/**
+ * 맵리듀스를 실행하기 위한 Main 함수가 존재하는 자바 파일
+ * 드라이버 파일로 부름
+ *
+ * IPCount, TimeLog, MonthLog, ImageCount, ResultCount는 같은 로그 파일을 잡마다 다시 읽고 다시 분석함
+ * 이 잡은 로그 파일을 1번만 읽고, 로그 한 줄을 1번만 분석하여 선택한 지표(AccessLogMetric)를 모두 계산함
+ * 지표별 결과는 분석 결과 폴더 아래의 지표 이름 폴더에 저장됨; ex) 분석 결과 폴더/ip, 분석 결과 폴더/hour
+ */
+@Log4j
+public class AccessLogStats extends Configuration implements Tool {
+
+    // 계산할 지표 이름(쉼표로 구분)을 저장하는 Configuration 변수 이름
+    public static final String METRICS = "accessLogMetrics";
+
+    // 지표를 선택하지 않으면 모든 지표를 계산함
+    public static final String DEFAULT_METRICS = "ip,hour,month,status,ext";
+
+    // 요청 URI의 확장자로 로그를 걸러낼 때, 남길 확장자(쉼표로 구분)를 저장하는 Configuration 변수 이름
+    public static final String EXTENSION_FILTER = "extensionFilter";
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더) 2개 받음
+        // 세 번째 파라미터로 계산할 지표를 쉼표로 구분하여 입력할 수 있음(선택) ex) ip,hour,status
+        // 네 번째 파라미터로 확장자를 쉼표로 구분하여 입력하면, 그 확장자를 요청한 로그만 분석함(선택) ex) jpg,gif
+        // 다섯 번째 파라미터로 하둡분산파일시스템에 저장된 URI 허용 목록 파일을 입력하면, 목록에 있는 URI를 요청한 로그만 분석함(선택)
+        // 앞의 선택 파라미터를 사용하지 않으려면 -를 입력함 ex) /access_log /result - - /uri_allowlist.txt
+        if (args.length < 2 || args.length > 5) {
+            log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new AccessLogStats(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Access Log Stats");
+
+        // 계산할 지표
+        configuration.set(METRICS, DEFAULT_METRICS);
+
+        // 매퍼 안에서 (지표, 키)별 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        configuration.setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 계산할 지표 -- 세 번째 파라미터(선택)
+        if (args.length >= 3 && !"-".equals(args[2])) {
+            conf.set(METRICS, args[2]);
+        }
+
+        // 분석할 로그의 확장자 -- 네 번째 파라미터(선택)
+        if (args.length >= 4 && !"-".equals(args[3])) {
+            conf.set(EXTENSION_FILTER, args[3]);
+            log.info("extensionFilter : " + args[3]);
+        }
+
+        // 잡을 실행하기 전에 지표 이름이 올바른지 확인
+        AccessLogMetric[] metrics = metricsOf(conf);
+
+        log.info("metrics : " + conf.get(METRICS));
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        // 하둡이 실행되면, 기본적으로 잡 객체를 메모리에 올림
+        Job job = Job.getInstance(conf);
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(AccessLogStats.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // URI 허용 목록(분석할 페이지의 URI) 파일 -- 다섯 번째 파라미터(선택)
+        // 분산 캐시에 올리면, 매퍼가 setup 함수에서 JVM마다 1번만 읽어서 목록에 없는 URI의 로그를 지표 계산 전에 걸러냄
+        if (args.length == 5) {
+            CachedDictionary.addToJob(job, CachedDictionary.URI_ALLOWLIST, new Path(args[4]));
+            log.info("uriAllowlist : " + args[4]);
+        }
+
+        // 분석할 폴더(파일) -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // 분석 결과가 저장되는 폴더(파일) -- 두 번째 파라미터
+        FileOutputFormat.setOutputPath(job, new Path(args[1]));
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(AccessLogStatsMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(AccessLogStatsReducer.class);
+
+        // 리듀스 수는 입력 파일 크기로 정함
+        job.setNumReduceTasks(ReduceTasks.forInput(job));
+
+        // 분석 결과가 저장될 때 사용될 키(key)와 값(value)의 데이터 타입
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(IntWritable.class);
+
+        // 지표마다 MultipleOutputs의 이름(named output)을 등록하여 지표별 폴더에 결과 파일을 저장함
+        for (AccessLogMetric metric : metrics) {
+            MultipleOutputs.addNamedOutput(job, metric.metricName(), TextOutputFormat.class, Text.class, IntWritable.class);
+        }
+
+        // 처음 저장할 때 파일을 만드는 LazyOutputFormat을 사용하여 빈 part-r-00000 파일이 생성되지 않도록 설정
+        LazyOutputFormat.setOutputFormatClass(job, TextOutputFormat.class);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        return (success ? 0 : 1);
+
+    }
+
+    /**
+     * Configuration에 저장된 지표 이름(쉼표로 구분)을 지표 배열로 변환하기
+     * 같은 지표를 여러 번 입력해도(ex) ip,hour,ip) 1번만 계산하도록 중복을 제거함
+     * 중복된 이름을 MultipleOutputs에 다시 등록하면 예외가 발생하기 때문임
+     */
+    static AccessLogMetric[] metricsOf(Configuration conf) {
+
+        String[] names = conf.getTrimmedStrings(METRICS, DEFAULT_METRICS.split(","));
+        EnumSet<AccessLogMetric> metrics = EnumSet.noneOf(AccessLogMetric.class);
+
+        for (String name : names) {
+            metrics.add(AccessLogMetric.of(name));
+        }
+
+        return metrics.toArray(new AccessLogMetric[0]);
+
+    }
+
+}
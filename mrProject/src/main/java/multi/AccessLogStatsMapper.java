@@ -0,0 +1,94 @@
+package multi;
+
+import common.cache.CachedDictionary;
+import common.mapreduce.CountMapper;
+import common.parser.AccessLogParser;
+import common.parser.ExtensionTable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+
+import java.io.IOException;
+
+/**
+ * 로그 한 줄을 1번만 분석하여 선택한 지표(AccessLogMetric)별 키의 빈도 수를 함께 세는 Mapper
+ *
+ * Shuffle and Sort로 전달하는 키는 "지표 번호(1바이트) + 지표 키"; ex) [HOUR]04, [STATUS]404
+ * 지표 번호가 키의 맨 앞에 있기 때문에 지표가 달라도 키가 섞이지 않고, 리듀서는 키를 보고 지표별 결과 폴더에 저장함
+ *
+ * Driver 파일에서 URI 허용 목록을 분산 캐시에 올리면, 요청 URI가 목록에 있는 로그만 분석함
+ * URI는 로그의 바이트 그대로(쿼리 문자열 포함, 대소문자 구분) 목록과 비교하기 때문에 레코드마다 String을 만들지 않음
+ *
+ * Driver 파일에서 In-Mapper Combining을 사용하도록 설정하기 때문에 시간대, 월, 결과 코드 등 종류가 적은 키는 매퍼 안에서 대부분 합쳐짐
+ */
+public class AccessLogStatsMapper extends CountMapper<LongWritable, Text> {
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // Driver 파일에서 선택한 지표
+    private AccessLogMetric[] metrics;
+
+    // 분석할 로그의 확장자 표(Driver 파일에서 정하지 않았으면 null이고, 모든 로그를 분석함)
+    private ExtensionTable filter;
+
+    // 분산 캐시에 올린 URI 허용 목록(Driver 파일에서 올리지 않았으면 null이고, 모든 로그를 분석함)
+    private CachedDictionary allowlist;
+
+    // 지표 번호와 지표 키를 이어 붙일 때 사용하는 배열(로그 한 줄보다 길면 늘림)
+    private byte[] keyBuffer = new byte[256];
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.metrics = AccessLogStats.metricsOf(context.getConfiguration());
+        this.filter = ExtensionTable.fromConf(context.getConfiguration(), AccessLogStats.EXTENSION_FILTER);
+
+        // 목록은 JVM마다 1번만 만들어지기 때문에 같은 JVM의 다음 태스크는 파일을 다시 읽지 않음
+        this.allowlist = CachedDictionary.get(context, CachedDictionary.URI_ALLOWLIST, false);
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
+        // 지표마다 로그를 다시 나누지 않고, 파서가 1번 분석한 위치를 모든 지표가 같이 사용함
+        if (!parser.parse(value)) {
+            return;
+        }
+
+        // 확장자 표에 없는 확장자를 요청한 로그는 분석하지 않음
+        if (filter != null && !filter.contains(parser)) {
+            return;
+        }
+
+        // URI 허용 목록에 없는 URI를 요청한 로그는 분석하지 않음
+        if (allowlist != null && !allowlist.contains(parser.getBytes(), parser.getUriStart(), parser.getUriLength())) {
+            return;
+        }
+
+        // 지표 키는 로그 한 줄보다 길지 않음(결과 코드 숫자는 최대 10자리)
+        if (keyBuffer.length < value.getLength() + 16) {
+            keyBuffer = new byte[value.getLength() + 16];
+        }
+
+        for (AccessLogMetric metric : metrics) {
+
+            int length = metric.write(parser, keyBuffer, 1);
+
+            // 로그에 해당 값이 없으면(요청 일시가 없는 로그 등) 그 지표만 세지 않음
+            if (length < 0) {
+                continue;
+            }
+
+            keyBuffer[0] = (byte) metric.ordinal();
+
+            count(context, keyBuffer, 0, length + 1);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package multi;
+
+import common.mapreduce.CountReducer;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+import java.io.IOException;
+
+/**
+ * "지표 번호(1바이트) + 지표 키"별 빈도 수를 합쳐서 지표별 결과 폴더에 저장하는 Reducer
+ *
+ * 결과 파일은 MultipleOutputs의 지표 이름(named output)으로 지표마다 다른 폴더에 "지표 키 빈도 수" 형태로 저장됨
+ * ex) 분석 결과 폴더/hour/part-r-00000 : 04	3
+ * Driver 파일에서 LazyOutputFormat을 사용하기 때문에 데이터가 없는 빈 결과 파일(part-r-00000 등)은 생성되지 않음
+ */
+public class AccessLogStatsReducer extends CountReducer<Text, IntWritable> {
+
+    // 지표 번호별 지표(AccessLogMetric.values()는 호출할 때마다 배열을 복사하기 때문에 1번만 가져옴)
+    private static final AccessLogMetric[] METRICS = AccessLogMetric.values();
+
+    // 결과 파일에 저장할 지표 키(지표 번호 제외); 태스크 동안 재사용
+    private final Text outKey = new Text();
+
+    // 지표별 폴더에 결과 파일을 저장하는 객체
+    private MultipleOutputs<Text, IntWritable> outputs;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.outputs = new MultipleOutputs<>(context);
+
+    }
+
+    @Override
+    public void reduce(Text key, Iterable<IntWritable> values, Context context) throws IOException, InterruptedException {
+
+        // 매퍼에서 미리 합친 값이 올 수 있기 때문에 값의 개수가 아닌 값을 더함
+        int count = 0;
+
+        for (IntWritable value : values) {
+            count += value.get();
+        }
+
+        // 맨 앞 1바이트는 지표 번호, 나머지는 지표 키
+        AccessLogMetric metric = METRICS[key.getBytes()[0]];
+
+        outKey.set(key.getBytes(), 1, key.getLength() - 1);
+        result.set(count);
+
+        outputs.write(metric.metricName(), outKey, result, metric.outputPath());
+
+    }
+
+    /**
+     * 지표별로 열린 결과 파일 닫기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        outputs.close();
+
+        super.cleanup(context);
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package noreduce;
 
+import common.cache.CachedDictionary;
+import common.mapreduce.CountMapper;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -23,7 +25,8 @@ public class WordCount4 extends Configuration implements Tool {
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석 결과가 저장될 파일(폴더) 1개만 받음
-        if (args.length != 1) {
+        // 두 번째 파라미터로 하둡분산파일시스템에 저장된 불용어 파일을 입력할 수 있음(선택)
+        if (args.length != 1 && args.length != 2) {
             System.out.printf("분석 결과가 저장될 폴더를 입력해야 합니다.");
             System.exit(-1);
         }
@@ -42,6 +45,11 @@ public class WordCount4 extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "No Reduce Test");
 
+        // 매퍼 안에서 단어 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        configuration.setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
@@ -86,6 +94,12 @@ public class WordCount4 extends Configuration implements Tool {
         // 메모리 사용량은 증가하지만, 처리 속도는 향상됨
         job.addCacheFile(new Path(analysisFile).toUri());
 
+        // 불용어(the, a 등 분석에서 제외할 단어) 파일 -- 두 번째 파라미터(선택)
+        // 분산 캐시에 올리면, 매퍼가 setup 함수에서 JVM마다 1번만 읽어서 Shuffle and Sort로 보내기 전에 걸러냄
+        if (args.length == 2) {
+            CachedDictionary.addToJob(job, CachedDictionary.STOPWORDS, new Path(args[1]));
+        }
+
         // 분석할 폴더(파일) -- 첫 번째 파라미터
         FileInputFormat.setInputPaths(job, new Path(analysisFile));
 
@@ -1,5 +1,8 @@
 package noreduce;
 
+import common.cache.CachedDictionary;
+import common.mapreduce.InMapperCombiner;
+import common.parser.WordTokenizer;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Mapper;
@@ -13,6 +16,38 @@ import java.io.IOException;
  */
 public class WordCount4Mapper extends Mapper<LongWritable, Text, Text, LongWritable> {
 
+    // Shuffle and Sort로 전달할 키(key)와 값(value)
+    // context.write()는 전달받은 값을 바로 직렬화하기 때문에 레코드마다 새로 만들지 않고 재사용함
+    private final Text outKey = new Text();
+    private final LongWritable outValue = new LongWritable();
+
+    // 한 줄을 단어로 나누는 토크나이저(레코드마다 새로 만들지 않고 재사용함)
+    private final WordTokenizer tokenizer = new WordTokenizer();
+
+    // In-Mapper Combining에 사용하는 해시 테이블(사용하지 않으면 null)
+    // 값이 LongWritable이라 CountMapper를 상속받지 않고, 해시 테이블만 CountMapper와 같은 InMapperCombiner를 사용함
+    private InMapperCombiner combiner;
+
+    // 분산 캐시에 올린 불용어 사전(Driver 파일에서 올리지 않았으면 null)
+    private CachedDictionary stopwords;
+
+    /**
+     * Driver 파일에서 정의한 In-Mapper Combining 설정 값과 분산 캐시에 올린 불용어 사전 가져오기
+     */
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        // 합친 빈도 수는 LongWritable 값으로 전달함
+        this.combiner = InMapperCombiner.of(context.getConfiguration(),
+                (bytes, start, length, count) -> this.write(context, bytes, start, length, count));
+
+        // 사전은 JVM마다 1번만 만들어지기 때문에 같은 JVM의 다음 태스크는 파일을 다시 읽지 않음
+        this.stopwords = CachedDictionary.get(context, CachedDictionary.STOPWORDS, true);
+
+    }
+
     /**
      * 부모 Mapper 자바 파일에 작성된 map 함수를 덮어쓰기(Override) 수행
      * map 함수는 분석할 파일의 레코드 1줄마다 실행됨
@@ -21,25 +56,56 @@ public class WordCount4Mapper extends Mapper<LongWritable, Text, Text, LongWrita
     @Override
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
 
-        // 분석할 파일의 한 줄 값
-        String line = value.toString(); // ex) the cat sat on the mat
-
-        // 단어 빈도 수 구현은 공백을 기준으로 나눈 단어로 구분함
-        // 분석할 한 줄 내용을 공백으로 나눔
-        // word 변수에는 공백을 기준으로 나눠진 단어가 저장됨
-        for (String word : line.split("\\W+")) { // \\W+ : '알파벳, 숫자, _ 이외의 문자(특수문자, 공백)'를 의미하는 정규식
+        // 분석할 파일의 한 줄 값; ex) the cat sat on the mat
+        // String으로 변환하지 않고 Text의 바이트를 그대로 단어로 나눔
+        tokenizer.reset(value);
 
-            // word 변수에 값이 있다면
-            if (word.length() > 0) {
+        // 단어 빈도 수 구현은 공백, 특수문자를 기준으로 나눈 단어로 구분함
+        // next()는 다음 단어가 있으면 true를 반환하며, 빈 단어는 만들지 않음
+        while (tokenizer.next()) {
 
-                // Shuffle and Sort로 데이터 전달하기
-                // 전달하는 값을 단어와 빈도 수(1)를 전달함
-                context.write(new Text(word), new LongWritable(1));
+            // 불용어는 Shuffle and Sort로 보내지 않음(대소문자 구분 없음)
+            if (stopwords != null && stopwords.contains(tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength())) {
+                continue;
+            }
 
+            // In-Mapper Combining을 사용하지 않으면, 단어와 빈도 수(1)를 바로 전달함
+            if (combiner == null) {
+                write(context, tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength(), 1);
+                continue;
             }
 
+            // 해시 테이블에서 빈도 수 합치기(최대 메모리 크기를 넘으면 합친 값을 먼저 전달함)
+            combiner.add(tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength(), 1);
+
         }
 
     }
 
+    /**
+     * 해시 테이블에 남아있는 빈도 수를 모두 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        if (combiner != null) {
+            combiner.flush();
+        }
+
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 바이트 배열의 일부(start부터 length만큼)를 키로, 빈도 수와 함께 전달하기
+     */
+    private void write(Context context, byte[] bytes, int start, int length, int count) throws IOException, InterruptedException {
+
+        outKey.set(bytes, start, length);
+        outValue.set(count);
+
+        context.write(outKey, outValue);
+
+    }
+
 }
@@ -0,0 +1,32 @@
+package partition;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * 리듀서에서 BucketIPWritable 키를 버킷 단위로 묶는 Grouping Comparator
+ *
+ * 정렬은 버킷 -> IP 순서로 하지만, 묶을 때는 버킷만 비교하기 때문에 reduce 함수는 리듀서 1개에서 버킷마다 1번만 실행됨
+ * reduce 함수에서 values를 읽을 때마다 key 객체의 IP가 다음 레코드의 IP로 바뀌기 때문에 IP 순서대로 빈도 수를 셀 수 있음
+ */
+public class BucketGroupingComparator extends WritableComparator {
+
+    public BucketGroupingComparator() {
+        super(BucketIPWritable.class, true);
+    }
+
+    /**
+     * 직렬화된 키의 첫 번째 바이트(버킷)만 비교
+     */
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        return Integer.compare(b1[s1], b2[s2]);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public int compare(WritableComparable a, WritableComparable b) {
+        return Integer.compare(((BucketIPWritable) a).getBucket(), ((BucketIPWritable) b).getBucket());
+    }
+
+}
@@ -0,0 +1,35 @@
+package partition;
+
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 매퍼의 출력을 Shuffle and Sort로 보내기 전에 (버킷, IP)별 빈도 수를 합치는 Combiner
+ *
+ * BucketIPReducer는 결과 파일용 Text를 만들기 때문에 컴바이너로 사용할 수 없어서 별도로 만듦
+ * 컴바이너는 리듀서의 BucketGroupingComparator를 사용하지 않고, 정렬 Comparator로 키 전체가 같은 값끼리 묶음
+ * 입력과 출력의 데이터 타입(BucketIPWritable, VIntWritable)이 같기 때문에 여러 번 실행되어도 결과가 같음
+ */
+public class BucketIPCombiner extends Reducer<BucketIPWritable, VIntWritable, BucketIPWritable, VIntWritable> {
+
+    // 합친 빈도 수; 태스크 동안 재사용
+    private final VIntWritable result = new VIntWritable();
+
+    @Override
+    public void reduce(BucketIPWritable key, Iterable<VIntWritable> values, Context context) throws IOException, InterruptedException {
+
+        int ipCount = 0;
+
+        for (VIntWritable value : values) {
+            ipCount += value.get();
+        }
+
+        result.set(ipCount);
+
+        context.write(key, result);
+
+    }
+
+}
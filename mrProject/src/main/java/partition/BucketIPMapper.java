@@ -0,0 +1,199 @@
+package partition;
+
+import common.collect.BytesIntHashMap;
+import common.collect.LongIntHashMap;
+import common.mapreduce.CountMapper;
+import common.parser.AccessLogParser;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * 로그 한 줄을 (시간 버킷, IP) 복합 키로 전달하는 Mapper들의 부모 객체
+ * 버킷은 키에 포함되어 있기 때문에 값(value)으로 시간대나 월 문자열을 전달하지 않음
+ * 값은 빈도 수(VIntWritable)이며, 1 ~ 127은 1바이트로 직렬화됨
+ * 리듀서는 전달받은 값을 더하기 때문에 매퍼나 컴바이너에서 미리 합친 빈도 수를 전달해도 결과가 같음
+ *
+ * 호스트 이름 등 IPv4 형태가 아닌 IP는 정수로 변환할 수 없기 때문에 키의 호스트 형태(BucketIPWritable 참고)로 전달함
+ *
+ * Driver 파일에서 inMapperCombine 값을 true로 설정하면, (버킷, IP)별 빈도 수를 해시 테이블(LongIntHashMap)에서 먼저 합친 후
+ * cleanup 함수에서 한 번에 전달함(In-Mapper Combining); 로그 한 줄마다가 아닌 (버킷, IP)마다 1건만 전달됨
+ * 호스트 형태의 IP는 (버킷 1바이트 + 호스트 바이트)를 키로 하는 해시 테이블(BytesIntHashMap)에서 따로 합침
+ * 두 해시 테이블의 크기를 더한 값이 inMapperMemoryMB 크기를 넘으면, 그때까지 합친 값을 먼저 전달하고 비운 후 계속 합침
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(BucketIPWritable, VIntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ */
+public abstract class BucketIPMapper extends Mapper<LongWritable, Text, BucketIPWritable, VIntWritable> {
+
+    // 로그를 나누는 시간 단위
+    private final TimeBucket timeBucket;
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // Shuffle and Sort로 전달할 키(모든 레코드에 재사용)
+    private final BucketIPWritable outKey = new BucketIPWritable();
+
+    // Shuffle and Sort로 전달할 빈도 수(모든 레코드에 재사용)
+    private final VIntWritable outValue = new VIntWritable();
+
+    // (버킷, IP)별 빈도 수를 합치는 해시 테이블(In-Mapper Combining을 사용하지 않으면 null)
+    private LongIntHashMap counts;
+
+    // (버킷, 호스트)별 빈도 수를 합치는 해시 테이블(In-Mapper Combining을 사용하지 않으면 null)
+    private BytesIntHashMap hostCounts;
+
+    // 버킷과 호스트를 이어 붙여서 hostCounts의 키를 만드는 배열(호스트가 더 길면 늘림)
+    private byte[] hostKey = new byte[64];
+
+    // 해시 테이블의 최대 메모리 크기(byte)
+    private long maxMemoryBytes;
+
+    protected BucketIPMapper(TimeBucket timeBucket) {
+        this.timeBucket = timeBucket;
+    }
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        Configuration conf = context.getConfiguration();
+
+        if (conf.getBoolean(CountMapper.IN_MAPPER_COMBINE, false)) {
+            this.counts = new LongIntHashMap(1 << 16);
+            this.hostCounts = new BytesIntHashMap();
+            this.maxMemoryBytes = conf.getInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB) * 1024L * 1024L;
+        }
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
+        // split()으로 나누지 않고, 파서가 바이트 배열에서 IP와 요청 일시 위치를 찾음
+        if (!parser.parse(value) || !parser.isTimeValid()) {
+            return;
+        }
+
+        int bucket = timeBucket.bucketOf(parser);
+
+        if (bucket < 0) {
+            return;
+        }
+
+        // 호스트 이름 등 IPv4 형태가 아닌 값은 정수로 변환할 수 없어서 로그의 바이트 그대로 전달함
+        if (!parser.isIpValid()) {
+            mapHost(bucket, context);
+            return;
+        }
+
+        // In-Mapper Combining을 사용하지 않으면 바로 전달함
+        // 전달되는 키(key) : (버킷, IP), 값(value) : 빈도 수(1)
+        if (counts == null) {
+            outKey.set(bucket, parser.getIp());
+            outValue.set(1);
+            context.write(outKey, outValue);
+            return;
+        }
+
+        // 버킷(상위 32비트)과 IP(하위 32비트)를 long 1개로 합쳐서 해시 테이블의 키로 사용
+        counts.add(((long) bucket << 32) | (parser.getIp() & 0xFFFFFFFFL), 1);
+
+        // 최대 메모리 크기를 넘으면, 지금까지 합친 빈도 수를 먼저 전달하고 해시 테이블 비우기
+        if (counts.memoryBytes() + hostCounts.memoryBytes() > maxMemoryBytes) {
+            flush(context);
+        }
+
+    }
+
+    /**
+     * IPv4 형태가 아닌 IP(호스트 이름 등)를 키의 호스트 형태로 전달하거나 해시 테이블에서 합치기
+     */
+    private void mapHost(int bucket, Context context) throws IOException, InterruptedException {
+
+        byte[] b = parser.getBytes();
+        int start = parser.getIpStart();
+        int length = parser.getIpLength();
+
+        // 전달되는 키(key) : (버킷, 호스트), 값(value) : 빈도 수(1)
+        if (hostCounts == null) {
+            outKey.setHost(bucket, b, start, length);
+            outValue.set(1);
+            context.write(outKey, outValue);
+            return;
+        }
+
+        if (hostKey.length < length + 1) {
+            hostKey = new byte[length + 1];
+        }
+
+        // 버킷(1바이트) 뒤에 호스트 바이트를 붙여서 해시 테이블의 키로 사용
+        hostKey[0] = (byte) bucket;
+        System.arraycopy(b, start, hostKey, 1, length);
+
+        hostCounts.add(hostKey, 0, length + 1, 1);
+
+        if (counts.memoryBytes() + hostCounts.memoryBytes() > maxMemoryBytes) {
+            flush(context);
+        }
+
+    }
+
+    /**
+     * 해시 테이블에 남아있는 빈도 수를 모두 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        flush(context);
+
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 해시 테이블에 합친 빈도 수를 Shuffle and Sort로 전달하고 비우기
+     */
+    private void flush(Context context) throws IOException, InterruptedException {
+
+        if (counts == null) {
+            return;
+        }
+
+        for (int i = 0; i < counts.size(); i++) {
+
+            long k = counts.key(i);
+
+            outKey.set((int) (k >>> 32), (int) k);
+            outValue.set(counts.value(i));
+
+            context.write(outKey, outValue);
+
+        }
+
+        counts.clear();
+
+        byte[] data = hostCounts.getKeyData();
+
+        for (int i = 0; i < hostCounts.size(); i++) {
+
+            int start = hostCounts.keyStart(i);
+
+            outKey.setHost(data[start], data, start + 1, hostCounts.keyLength(i) - 1);
+            outValue.set(hostCounts.value(i));
+
+            context.write(outKey, outValue);
+
+        }
+
+        hostCounts.clear();
+
+    }
+
+}
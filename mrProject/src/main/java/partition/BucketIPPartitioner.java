@@ -0,0 +1,30 @@
+package partition;
+
+import common.mapreduce.WeightedBucketPartitioner;
+
+/**
+ * BucketIPWritable 키를 버킷과 IP(호스트 형태이면 호스트 바이트의 해시 값)로 리듀서에 나누는 파티셔너
+ *
+ * 기존 TimeLogPartitioner, MonthLogPartitioner는 버킷마다 리듀서 1개를 정해서 리듀서 수가 24개, 12개로 고정되었고
+ * 로그가 많은 시간대(월)를 맡은 리듀서 몇 개가 대부분의 데이터를 처리했음
+ *
+ * Driver 파일에서 TimeBucketSampler로 샘플링한 버킷별 로그 수로 배정표(bucketReducers)를 만들면,
+ * 로그가 많은 버킷은 여러 리듀서가 IP로 나눠서 처리하고, 로그가 적은 버킷은 한 리듀서에 모아서 처리함
+ * 버킷별 결과가 적은 수의 리듀서에 모이면서도 리듀서마다 처리량은 비슷해짐
+ * 배정표가 없으면 버킷과 IP를 함께 해시하여 리듀서 수와 관계없이 고르게 나눔
+ *
+ * 같은 (버킷, IP)는 항상 같은 리듀서로 가기 때문에 IP별 빈도 수는 리듀서 1개에서 모두 계산됨(결과 파일을 다시 합칠 필요 없음)
+ */
+public class BucketIPPartitioner<VALUE> extends WeightedBucketPartitioner<BucketIPWritable, VALUE> {
+
+    @Override
+    protected int bucket(BucketIPWritable key, VALUE value) {
+        return key.getBucket();
+    }
+
+    @Override
+    protected int spread(BucketIPWritable key, VALUE value) {
+        return key.ipHash();
+    }
+
+}
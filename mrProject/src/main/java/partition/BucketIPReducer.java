@@ -0,0 +1,131 @@
+package partition;
+
+import common.parser.AccessLogParser;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+import java.io.IOException;
+
+/**
+ * (시간 버킷, IP) 복합 키를 받아서 버킷별 IP 빈도 수를 계산하는 Reducer들의 부모 객체
+ *
+ * BucketGroupingComparator가 버킷 단위로 묶기 때문에 reduce 함수는 버킷마다 1번 실행되고,
+ * values를 읽을 때마다 key 객체의 IP가 다음 레코드의 IP로 바뀜(IPv4 숫자 순서 -> 호스트 이름 순서로 정렬되어 있음)
+ * 그래서 IP가 바뀔 때마다 앞의 IP의 빈도 수를 결과 파일에 저장함
+ * 값은 빈도 수이며, 매퍼나 컴바이너에서 미리 합친 값이 올 수 있기 때문에 값의 개수가 아닌 값을 더함
+ *
+ * 결과 파일에는 "버킷 IP 빈도 수" 형태로 저장됨; ex) 04	96.7.4.14	3, 04	host.example.com	2
+ *
+ * 결과 파일은 MultipleOutputs로 버킷마다 다른 폴더에 저장되기 때문에 리듀서 수가 버킷 수와 관계없음
+ * 리듀서 여러 개가 같은 버킷을 처리하면 같은 폴더에 리듀서 번호만 다른 파일로 저장됨; ex) 04/part-r-00000, 04/part-r-00003
+ * Driver 파일에서 LazyOutputFormat을 사용하기 때문에 데이터가 없는 빈 결과 파일(part-r-00000 등)은 생성되지 않음
+ */
+public abstract class BucketIPReducer extends Reducer<BucketIPWritable, VIntWritable, Text, IntWritable> {
+
+    // 로그를 나누는 시간 단위
+    private final TimeBucket timeBucket;
+
+    // 결과 파일에 저장할 키(버킷, IP)와 값(빈도 수); 태스크 동안 재사용
+    private final Text outKey = new Text();
+    private final IntWritable result = new IntWritable();
+
+    // 버킷 이름과 IPv4를 이어 붙일 때 사용하는 배열(버킷 이름 + 탭 + 최대 15바이트 IP)
+    private final byte[] keyBuffer = new byte[32];
+
+    // 현재 빈도 수를 세고 있는 키(values를 읽으면 key 객체가 바뀌기 때문에 복사해서 보관)
+    private final BucketIPWritable current = new BucketIPWritable();
+
+    // 버킷별 폴더에 결과 파일을 저장하는 객체
+    private MultipleOutputs<Text, IntWritable> outputs;
+
+    protected BucketIPReducer(TimeBucket timeBucket) {
+        this.timeBucket = timeBucket;
+    }
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.outputs = new MultipleOutputs<>(context);
+
+    }
+
+    @Override
+    public void reduce(BucketIPWritable key, Iterable<VIntWritable> values, Context context) throws IOException, InterruptedException {
+
+        // 현재 IP의 빈도 수
+        int ipCount = 0;
+
+        for (VIntWritable value : values) {
+
+            // values를 읽으면 key 객체가 현재 레코드의 키로 바뀜
+            // IP(IPv4 또는 호스트)가 바뀌면 앞의 IP의 빈도 수 저장
+            if (ipCount > 0 && !key.equals(current)) {
+                write(current, ipCount);
+                ipCount = 0;
+            }
+
+            if (ipCount == 0) {
+                current.set(key);
+            }
+
+            ipCount += value.get();
+
+        }
+
+        if (ipCount > 0) {
+            write(current, ipCount);
+        }
+
+    }
+
+    /**
+     * 버킷별로 열린 결과 파일 닫기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        outputs.close();
+
+        super.cleanup(context);
+
+    }
+
+    /**
+     * 버킷, IP, 빈도 수를 버킷의 결과 파일에 저장하기
+     */
+    private void write(BucketIPWritable key, int count) throws IOException, InterruptedException {
+
+        int bucket = key.getBucket();
+        byte[] label = timeBucket.label(bucket);
+
+        System.arraycopy(label, 0, keyBuffer, 0, label.length);
+        keyBuffer[label.length] = '\t';
+
+        int length = label.length + 1;
+
+        if (key.isHost()) {
+
+            // 호스트 이름은 길이가 정해져 있지 않아서 버킷 이름 뒤에 바이트 그대로 붙임
+            outKey.set(keyBuffer, 0, length);
+            outKey.append(key.getHost(), 0, key.getHostLength());
+
+        } else {
+
+            length += AccessLogParser.formatIp(key.getIp(), keyBuffer, length);
+
+            outKey.set(keyBuffer, 0, length);
+
+        }
+
+        result.set(count);
+
+        outputs.write(outKey, result, timeBucket.outputPath(bucket));
+
+    }
+
+}
@@ -0,0 +1,240 @@
+package partition;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 시간 버킷(시간대 또는 월)과 IP를 함께 저장하는 복합 키(Composite Key)
+ *
+ * IP는 2가지 형태 중 하나로 저장됨
+ *  - IPv4 : 파서가 변환한 32비트 정수; 직렬화하면 버킷 1바이트 + 0(1바이트) + IP 4바이트로 6바이트임
+ *  - 호스트 이름 등 IPv4 형태가 아닌 값 : 로그의 바이트 그대로; 직렬화하면 버킷 1바이트 + 길이(VInt) + 호스트 바이트
+ * 정수로 변환할 수 없는 IP도 버리지 않고 기존 Text 키처럼 결과 파일에 저장하기 위해 호스트 형태를 사용함
+ *
+ * 정렬 순서는 버킷 -> IPv4(숫자 순서) -> 호스트(바이트 순서)이며, 아래의 Comparator가 직렬화된 바이트를 그대로 비교함
+ * 같은 버킷의 IP는 리듀서 안에서 연속으로 정렬되기 때문에 BucketGroupingComparator로 버킷 단위로 묶어서 처리할 수 있음
+ */
+public class BucketIPWritable implements WritableComparable<BucketIPWritable> {
+
+    // 시간 버킷 번호(TimeBucket 참고)
+    private byte bucket;
+
+    // AccessLogParser가 변환한 32비트 정수 IP(호스트 형태이면 사용하지 않음)
+    private int ip;
+
+    // IPv4 형태가 아닌 IP의 바이트와 길이(길이가 0이면 IPv4 형태); 배열은 재사용하며 길이가 부족할 때만 늘림
+    private byte[] host = new byte[0];
+    private int hostLength;
+
+    /**
+     * IPv4 형태로 저장하기
+     */
+    public void set(int bucket, int ip) {
+        this.bucket = (byte) bucket;
+        this.ip = ip;
+        this.hostLength = 0;
+    }
+
+    /**
+     * 호스트 형태로 저장하기(바이트 배열의 일부를 복사함)
+     */
+    public void setHost(int bucket, byte[] bytes, int start, int length) {
+
+        this.bucket = (byte) bucket;
+        this.ip = 0;
+
+        this.ensureCapacity(length);
+        System.arraycopy(bytes, start, this.host, 0, length);
+        this.hostLength = length;
+
+    }
+
+    /**
+     * 다른 키의 값을 복사하기(리듀서에서 values를 읽으면 key 객체가 바뀌기 때문에 앞의 키를 보관할 때 사용)
+     */
+    public void set(BucketIPWritable other) {
+
+        if (other.isHost()) {
+            this.setHost(other.bucket, other.host, 0, other.hostLength);
+        } else {
+            this.set(other.bucket, other.ip);
+        }
+
+    }
+
+    public int getBucket() {
+        return this.bucket;
+    }
+
+    public int getIp() {
+        return this.ip;
+    }
+
+    public boolean isHost() {
+        return this.hostLength > 0;
+    }
+
+    public byte[] getHost() {
+        return this.host;
+    }
+
+    public int getHostLength() {
+        return this.hostLength;
+    }
+
+    /**
+     * 파티셔너에서 같은 버킷의 키를 여러 리듀서에 나눌 때 사용하는 값
+     */
+    public int ipHash() {
+        return this.isHost() ? WritableComparator.hashBytes(this.host, this.hostLength) : this.ip;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+
+        out.writeByte(this.bucket);
+        WritableUtils.writeVInt(out, this.hostLength);
+
+        if (this.isHost()) {
+            out.write(this.host, 0, this.hostLength);
+        } else {
+            out.writeInt(this.ip);
+        }
+
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+
+        this.bucket = in.readByte();
+
+        int length = WritableUtils.readVInt(in);
+
+        if (length > 0) {
+
+            this.ensureCapacity(length);
+            in.readFully(this.host, 0, length);
+
+            this.ip = 0;
+            this.hostLength = length;
+
+        } else {
+
+            this.ip = in.readInt();
+            this.hostLength = 0;
+
+        }
+
+    }
+
+    @Override
+    public int compareTo(BucketIPWritable o) {
+
+        if (this.bucket != o.bucket) {
+            return this.bucket < o.bucket ? -1 : 1;
+        }
+
+        // IPv4 형태가 호스트 형태보다 앞에 정렬됨
+        if (this.isHost() != o.isHost()) {
+            return this.isHost() ? 1 : -1;
+        }
+
+        if (this.isHost()) {
+            return WritableComparator.compareBytes(this.host, 0, this.hostLength, o.host, 0, o.hostLength);
+        }
+
+        return Integer.compareUnsigned(this.ip, o.ip);
+
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof BucketIPWritable)) {
+            return false;
+        }
+
+        return this.compareTo((BucketIPWritable) o) == 0;
+
+    }
+
+    @Override
+    public int hashCode() {
+        return this.bucket * 31 + this.ipHash();
+    }
+
+    @Override
+    public String toString() {
+
+        String ip = this.isHost()
+                ? new String(this.host, 0, this.hostLength, StandardCharsets.UTF_8)
+                : (this.ip >>> 24) + "." + ((this.ip >>> 16) & 0xFF) + "." + ((this.ip >>> 8) & 0xFF) + "." + (this.ip & 0xFF);
+
+        return this.bucket + "\t" + ip;
+
+    }
+
+    private void ensureCapacity(int length) {
+
+        if (this.host.length < length) {
+            this.host = Arrays.copyOf(this.host, Math.max(length, this.host.length * 2));
+        }
+
+    }
+
+    /**
+     * Shuffle and Sort에서 직렬화된 키를 객체로 되돌리지 않고 버킷 -> IPv4 -> 호스트 순서로 비교하는 Comparator
+     */
+    public static class Comparator extends WritableComparator {
+
+        public Comparator() {
+            super(BucketIPWritable.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+
+            if (b1[s1] != b2[s2]) {
+                return b1[s1] < b2[s2] ? -1 : 1;
+            }
+
+            try {
+
+                // 버킷 다음의 길이(VInt); 0이면 IPv4 형태
+                int n1 = WritableUtils.decodeVIntSize(b1[s1 + 1]);
+                int n2 = WritableUtils.decodeVIntSize(b2[s2 + 1]);
+
+                int length1 = readVInt(b1, s1 + 1);
+                int length2 = readVInt(b2, s2 + 1);
+
+                if ((length1 > 0) != (length2 > 0)) {
+                    return length1 > 0 ? 1 : -1;
+                }
+
+                if (length1 > 0) {
+                    return compareBytes(b1, s1 + 1 + n1, length1, b2, s2 + 1 + n2, length2);
+                }
+
+                return Integer.compareUnsigned(readInt(b1, s1 + 1 + n1), readInt(b2, s2 + 1 + n2));
+
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+
+        }
+
+    }
+
+    // 잡에서 BucketIPWritable을 키로 사용하면, 하둡이 위의 Comparator를 찾아서 사용하도록 등록
+    static {
+        WritableComparator.define(BucketIPWritable.class, new Comparator());
+    }
+
+}
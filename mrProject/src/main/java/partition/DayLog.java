@@ -0,0 +1,166 @@
+package partition;
+
+import common.mapreduce.CountMapper;
+import common.mapreduce.ReduceTasks;
+import common.mapreduce.WeightedBucketPartitioner;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * 맵리듀스를 실행하기 위한 Main 함수가 존재하는 자바 파일
+ * 드라이버 파일로 부름
+ */
+@Log4j
+public class DayLog extends Configuration implements Tool {
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더) 2개 받음
+        // 세 번째 파라미터로 리듀스 수를 입력할 수 있음(선택)
+        if (args.length != 2 && args.length != 3) {
+            log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // 리듀스 수는 1 이상의 정수만 허용함
+        if (args.length == 3 && ReduceTasks.parse(args[2]) < 1) {
+            log.info("리듀스 수는 1 이상의 정수로 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new DayLog(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Partitioner Day Test");
+
+        // 매퍼 안에서 (버킷, IP)별 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        configuration.setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        // 하둡이 실행되면, 기본적으로 잡 객체를 메모리에 올림
+        Job job = Job.getInstance(conf);
+
+        // 호출이 발생하면, 메모리에 저장하여 캐시 처리 수행
+        // 하둡분산파일시스템에 저장된 파일만 가능함
+        // 하둡분산파일시스템에 저장된 /access_log 파일을 메모리에 올리기
+        // 메모리 사용량은 증가하지만, 처리 속도는 향상됨
+        job.addCacheFile(new Path("/access_log").toUri());
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(DayLog.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // 분석할 폴더(파일) -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // 분석 결과가 저장되는 폴더(파일) -- 두 번째 파라미터
+        FileOutputFormat.setOutputPath(job, new Path(args[1]));
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(DayLogMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(DayLogReducer.class);
+
+        // 리듀스를 여러 개 분산해서 실행하기 위해 사용되는 파티셔너 객체 설정
+        // (일, IP) 복합 키를 일과 IP로 나누기 때문에 리듀스 수가 일 수(31개)에 고정되지 않음
+        job.setPartitionerClass(BucketIPPartitioner.class);
+
+        // 리듀서에서 같은 일의 키를 묶어서 reduce 함수를 1번만 실행하도록 설정
+        // 정렬은 BucketIPWritable에 등록된 Comparator가 일 -> IP 순서로 수행함
+        job.setGroupingComparatorClass(BucketGroupingComparator.class);
+
+        // 미니 리듀서(mini-Reducer)라 부르며, Combiner 수행 설정
+        // 매퍼에서 합치고 남은 (버킷, IP)별 빈도 수를 Spill, Merge 단계에서 한 번 더 합침
+        job.setCombinerClass(BucketIPCombiner.class);
+
+        // 리듀스 수 -- 세 번째 파라미터(선택), 입력하지 않으면 입력 파일 크기로 정함
+        // 결과 파일은 버킷마다 다른 폴더에 저장되기 때문에 리듀스 수가 버킷 수와 같을 필요 없음
+        int numReduceTasks = args.length == 3 ? ReduceTasks.parse(args[2]) : ReduceTasks.forInput(job);
+
+        job.setNumReduceTasks(numReduceTasks);
+
+        // 잡을 실행하기 전에 입력 파일을 샘플링하여 일별 로그 수를 추정하고, 리듀서 배정표 만들기
+        // 로그가 많은 일은 여러 리듀서에 나눠서 배정하여 가장 늦게 끝나는 리듀서의 처리량을 줄임
+        long[] weights = TimeBucketSampler.sample(job, TimeBucket.DAY);
+        String bucketReducers = WeightedBucketPartitioner.configure(job.getConfiguration(), weights, numReduceTasks);
+
+        log.info("bucketReducers : " + bucketReducers);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 키(key)의 데이터 타입
+        // Mapper에서 전달하는 값과 Reducer에서 전달하는 값의 데이터 타입이 다르기 때문에 별도로 선언
+        job.setMapOutputKeyClass(BucketIPWritable.class);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 값(value)의 데이터 타입
+        // 일은 키에 포함되어 있기 때문에 값은 빈도 수만 전달함
+        job.setMapOutputValueClass(VIntWritable.class);
+
+        // 분석 결과가 저장될 때 사용될 키(key)의 데이터 타입
+        // "일 IP" 형태의 Text로 저장됨
+        job.setOutputKeyClass(Text.class);
+
+        // 분석 결과가 저장될 때 사용될 값(value)의 데이터 타입
+        job.setOutputValueClass(IntWritable.class);
+
+        // 결과 파일은 리듀서에서 MultipleOutputs로 버킷별 폴더에 저장함
+        // 처음 저장할 때 파일을 만드는 LazyOutputFormat을 사용하여 빈 part-r-00000 파일이 생성되지 않도록 설정
+        LazyOutputFormat.setOutputFormatClass(job, TextOutputFormat.class);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        return (success ? 0 : 1);
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package partition;
+
+/**
+ * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
+ * 로그 한 줄을 (일(01~31), IP) 복합 키로 전달하기 위해 Mapper를 상속받은 BucketIPMapper를 상속받음
+ * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
+ * Mapper 파일의 뒤의 2개 데이터 타입(BucketIPWritable, VIntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ */
+public class DayLogMapper extends BucketIPMapper {
+
+    public DayLogMapper() {
+        super(TimeBucket.DAY);
+    }
+
+}
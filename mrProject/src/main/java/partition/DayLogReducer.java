@@ -0,0 +1,17 @@
+package partition;
+
+/**
+ * 리듀스 역할을 수행하기 위해서는 Reducer 자바 파일을 상속받아야 함
+ * 일(01~31)별 IP 빈도 수를 계산하기 위해 Reducer를 상속받은 BucketIPReducer를 상속받음
+ * Reducer 파일의 앞의 2개 데이터 타입(BucketIPWritable, VIntWritable)은 Shuffle and Sort에 보낸 데이터의 키(key)와 값(value)의 데이터 타입
+ * Reducer 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 결과 파일 생성에 사용될 키(key)와 값(value)
+ *
+ * 결과 파일 ex) 24	96.7.4.14	3
+ */
+public class DayLogReducer extends BucketIPReducer {
+
+    public DayLogReducer() {
+        super(TimeBucket.DAY);
+    }
+
+}
@@ -1,13 +1,19 @@
 package partition;
 
+import common.mapreduce.CountMapper;
+import common.mapreduce.ReduceTasks;
+import common.mapreduce.WeightedBucketPartitioner;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
 import org.apache.hadoop.util.Tool;
 import org.apache.hadoop.util.ToolRunner;
 
@@ -22,11 +28,18 @@ public class MonthLog extends Configuration implements Tool {
     public static void main(String[] args) throws Exception {
 
         // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 파일(폴더) 2개 받음
-        if (args.length != 2) {
+        // 세 번째 파라미터로 리듀스 수를 입력할 수 있음(선택)
+        if (args.length != 2 && args.length != 3) {
             log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
             System.exit(-1);
         }
 
+        // 리듀스 수는 1 이상의 정수만 허용함
+        if (args.length == 3 && ReduceTasks.parse(args[2]) < 1) {
+            log.info("리듀스 수는 1 이상의 정수로 입력해야 합니다.");
+            System.exit(-1);
+        }
+
         // ToolRunner를 이용한 맵리듀스 실행
         int exitCode = ToolRunner.run(new MonthLog(), args);
 
@@ -41,6 +54,11 @@ public class MonthLog extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "Partitioner Test");
 
+        // 매퍼 안에서 (버킷, IP)별 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        configuration.setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
@@ -95,26 +113,49 @@ public class MonthLog extends Configuration implements Tool {
         job.setReducerClass(MonthLogReducer.class);
 
         // 리듀스를 여러 개 분산해서 실행하기 위해 사용되는 파티셔너 객체 설정
-        job.setPartitionerClass(MonthLogPartitioner.class);
+        // (월, IP) 복합 키를 월과 IP로 나누기 때문에 리듀스 수가 월 수(12개)에 고정되지 않음
+        job.setPartitionerClass(BucketIPPartitioner.class);
+
+        // 리듀서에서 같은 월의 키를 묶어서 reduce 함수를 1번만 실행하도록 설정
+        // 정렬은 BucketIPWritable에 등록된 Comparator가 월 -> IP 순서로 수행함
+        job.setGroupingComparatorClass(BucketGroupingComparator.class);
+
+        // 미니 리듀서(mini-Reducer)라 부르며, Combiner 수행 설정
+        // 매퍼에서 합치고 남은 (버킷, IP)별 빈도 수를 Spill, Merge 단계에서 한 번 더 합침
+        job.setCombinerClass(BucketIPCombiner.class);
 
-        // 1년은 12개월이기 때문에 리듀스 12개를 생성하여 리듀스 1개당 1개월씩 처리
-        // 예를 들어 1월은 0번 리듀스, 2월은 1번 리듀스가 데이터 처리함
-        job.setNumReduceTasks(12);
+        // 리듀스 수 -- 세 번째 파라미터(선택), 입력하지 않으면 입력 파일 크기로 정함
+        // 결과 파일은 버킷마다 다른 폴더에 저장되기 때문에 리듀스 수가 버킷 수와 같을 필요 없음
+        int numReduceTasks = args.length == 3 ? ReduceTasks.parse(args[2]) : ReduceTasks.forInput(job);
+
+        job.setNumReduceTasks(numReduceTasks);
+
+        // 잡을 실행하기 전에 입력 파일을 샘플링하여 월별 로그 수를 추정하고, 리듀서 배정표 만들기
+        // 로그가 많은 월은 여러 리듀서에 나눠서 배정하여 가장 늦게 끝나는 리듀서의 처리량을 줄임
+        long[] weights = TimeBucketSampler.sample(job, TimeBucket.MONTH);
+        String bucketReducers = WeightedBucketPartitioner.configure(job.getConfiguration(), weights, numReduceTasks);
+
+        log.info("bucketReducers : " + bucketReducers);
 
         // Mapper에서 Shuffle and Sort로 전달하는 키(key)의 데이터 타입
         // Mapper에서 전달하는 값과 Reducer에서 전달하는 값의 데이터 타입이 다르기 때문에 별도로 선언
-        job.setMapOutputKeyClass((Text.class));
+        job.setMapOutputKeyClass(BucketIPWritable.class);
 
         // Mapper에서 Shuffle and Sort로 전달하는 값(value)의 데이터 타입
-        // Mapper에서 전달하는 값과 Reducer에서 전달하는 값의 데이터 타입이 다르기 때문에 별도로 선언
-        job.setMapOutputValueClass(Text.class);
+        // 월은 키에 포함되어 있기 때문에 값은 빈도 수만 전달함
+        job.setMapOutputValueClass(VIntWritable.class);
 
         // 분석 결과가 저장될 때 사용될 키(key)의 데이터 타입
+        // "월 IP" 형태의 Text로 저장됨
         job.setOutputKeyClass(Text.class);
 
         // 분석 결과가 저장될 때 사용될 값(value)의 데이터 타입
         job.setOutputValueClass(IntWritable.class);
 
+        // 결과 파일은 리듀서에서 MultipleOutputs로 버킷별 폴더에 저장함
+        // 처음 저장할 때 파일을 만드는 LazyOutputFormat을 사용하여 빈 part-r-00000 파일이 생성되지 않도록 설정
+        LazyOutputFormat.setOutputFormatClass(job, TextOutputFormat.class);
+
         // 맵리듀스 실행
         boolean success = job.waitForCompletion(true);
 
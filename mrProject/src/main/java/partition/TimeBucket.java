@@ -0,0 +1,101 @@
+package partition;
+
+import common.parser.AccessLogParser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 로그를 나누는 시간 단위(버킷)
+ * 버킷 번호는 BucketIPWritable 키에 1바이트로 저장되고, 결과 파일에는 label 값으로 저장됨
+ *
+ * HOUR : 요청 일시의 시간(0~23) -> "00" ~ "23"; 24시 등 범위를 벗어난 값은 버림
+ * MONTH : 요청 일시의 월(0~11) -> "Jan" ~ "Dec"
+ * DAY : 요청 일시의 일(1~31) -> "01" ~ "31"
+ *
+ * 결과 파일은 MultipleOutputs로 버킷마다 다른 폴더에 저장됨; ex) 분석 결과 폴더/04/part-r-00000
+ */
+public enum TimeBucket {
+
+    HOUR(24) {
+        @Override
+        public int bucketOf(AccessLogParser parser) {
+            int hour = parser.getHour();
+            return hour >= 0 && hour < 24 ? hour : -1;
+        }
+
+        @Override
+        String format(int bucket) {
+            return String.format("%02d", bucket);
+        }
+    },
+
+    MONTH(12) {
+        @Override
+        public int bucketOf(AccessLogParser parser) {
+            return parser.getMonth();
+        }
+
+        @Override
+        String format(int bucket) {
+            return AccessLogParser.MONTH_NAMES[bucket];
+        }
+    },
+
+    DAY(31) {
+        @Override
+        public int bucketOf(AccessLogParser parser) {
+            int day = parser.getDay();
+            return day >= 1 && day <= 31 ? day - 1 : -1;
+        }
+
+        @Override
+        String format(int bucket) {
+            return String.format("%02d", bucket + 1);
+        }
+    };
+
+    // 버킷 수(HOUR : 24, MONTH : 12)
+    private final int size;
+
+    // 버킷별 결과 파일에 저장할 값; 레코드마다 문자열을 만들지 않도록 미리 바이트로 변환해 둠
+    private final byte[][] labels;
+
+    // 버킷별 결과 파일 경로(MultipleOutputs의 baseOutputPath); ex) 04/part
+    private final String[] outputPaths;
+
+    TimeBucket(int size) {
+
+        this.size = size;
+        this.labels = new byte[size][];
+        this.outputPaths = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            this.labels[i] = this.format(i).getBytes(StandardCharsets.US_ASCII);
+            this.outputPaths[i] = this.format(i) + "/part";
+        }
+
+    }
+
+    /**
+     * 파서가 분석한 로그 한 줄의 버킷 번호
+     *
+     * @return 요청 일시가 없거나 범위를 벗어나면 -1
+     */
+    public abstract int bucketOf(AccessLogParser parser);
+
+    // 버킷 번호를 결과 파일에 저장할 값으로 변환
+    abstract String format(int bucket);
+
+    public int size() {
+        return this.size;
+    }
+
+    public byte[] label(int bucket) {
+        return this.labels[bucket];
+    }
+
+    public String outputPath(int bucket) {
+        return this.outputPaths[bucket];
+    }
+
+}
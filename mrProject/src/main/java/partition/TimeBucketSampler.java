@@ -0,0 +1,57 @@
+package partition;
+
+import common.mapreduce.LineSampler;
+import common.parser.AccessLogParser;
+import org.apache.hadoop.mapreduce.Job;
+
+import java.io.IOException;
+
+/**
+ * 잡을 실행하기 전에 입력 파일을 샘플링하여 버킷(시간대, 월)별 로그 수를 추정하는 객체(InputSampler와 같은 역할)
+ *
+ * 로그 파일은 시간 순서로 저장되기 때문에 LineSampler로 입력 파일 전체의 임의의 위치에서 몇 줄씩 읽음
+ * 결과는 WeightedBucketPartitioner.configure 함수의 가중치로 사용함
+ */
+public class TimeBucketSampler {
+
+    private TimeBucketSampler() {
+    }
+
+    public static long[] sample(Job job, TimeBucket timeBucket) throws IOException, InterruptedException {
+        return sample(job, timeBucket, LineSampler.DEFAULT_SAMPLES, LineSampler.DEFAULT_LINES_PER_SAMPLE);
+    }
+
+    /**
+     * 입력 파일을 샘플링하여 버킷별 로그 수 구하기
+     *
+     * @param job            입력 파일(FileInputFormat.setInputPaths)이 설정된 잡
+     * @param timeBucket     로그를 나누는 시간 단위
+     * @param samples        입력 파일에서 읽을 위치 수
+     * @param linesPerSample 위치마다 읽을 최대 줄 수
+     * @return 버킷별 샘플링된 로그 수
+     */
+    public static long[] sample(Job job, TimeBucket timeBucket, int samples, int linesPerSample) throws IOException, InterruptedException {
+
+        long[] counts = new long[timeBucket.size()];
+
+        AccessLogParser parser = new AccessLogParser();
+
+        LineSampler.sample(job, samples, linesPerSample, line -> {
+
+            if (!parser.parse(line) || !parser.isTimeValid()) {
+                return;
+            }
+
+            int bucket = timeBucket.bucketOf(parser);
+
+            if (bucket >= 0) {
+                counts[bucket]++;
+            }
+
+        });
+
+        return counts;
+
+    }
+
+}
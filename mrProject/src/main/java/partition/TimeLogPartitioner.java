@@ -1,61 +0,0 @@
-package partition;
-
-import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Partitioner;
-
-import java.util.HashMap;
-import java.util.Map;
-
-/**
- * Mapper에서 Shuffle and Sort로 데이터를 전달할 때 실행됨
- */
-public class TimeLogPartitioner extends Partitioner<Text, Text> {
-
-    // Mapper 함수에서 받는 시간(times)과 리듀서를 매칭하기 위한 객체
-    // 00시는 0번 리듀스, 01시는 1번 리듀스, 23시는 23번 리듀스 등 이런 형태로 매칭
-    Map<String, Integer> times = new HashMap<>();
-
-    // TimeLogPartitioner() 생성자에 매칭 정보 저장
-    public TimeLogPartitioner() {
-        this.times.put("00", 0);
-        this.times.put("01", 1);
-        this.times.put("02", 2);
-        this.times.put("03", 3);
-        this.times.put("04", 4);
-        this.times.put("05", 5);
-        this.times.put("06", 6);
-        this.times.put("07", 7);
-        this.times.put("08", 8);
-        this.times.put("09", 9);
-        this.times.put("10", 10);
-        this.times.put("11", 11);
-        this.times.put("12", 12);
-        this.times.put("13", 13);
-        this.times.put("14", 14);
-        this.times.put("15", 15);
-        this.times.put("16", 16);
-        this.times.put("17", 17);
-        this.times.put("18", 18);
-        this.times.put("19", 19);
-        this.times.put("20", 20);
-        this.times.put("21", 21);
-        this.times.put("22", 22);
-        this.times.put("23", 23);
-    }
-
-    /**
-     * Partitioner 객체에 정의된 함수를 오버라이드
-     *
-     * @param key Mapper에서 Shuffle and Sort로 전달한 키(key); ip 값이 들어옴
-     * @param value Mapper에서 Shuffle and Sort로 전달한 값(value); 시간(times) 값이 들어옴
-     * @param numReducerTasks 리듀서 객체 번호(0부터 시작; 0 - 00시, 1 - 01시, 2 - 02시 등등)
-     */
-    @Override
-    public int getPartition(Text key, Text value, int numReducerTasks) {
-
-        // 실행될 리듀스 번호를 시간대(times)에 따라 매핑
-        return times.get(value.toString());
-
-    }
-
-}
@@ -0,0 +1,128 @@
+package partition;
+
+import common.sketch.HyperLogLog;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * 시간대, 일, 월별 순 방문자(서로 다른 IP) 수를 HyperLogLog로 추정하는 맵리듀스의 드라이버 파일
+ *
+ * TimeLog, MonthLog는 (버킷, IP)별 빈도 수를 모두 저장하지만, 버킷별 순 방문자 수만 필요하면
+ * 모든 IP를 Shuffle and Sort로 전달할 필요 없이 매퍼마다 버킷별 레지스터 배열(기본 4KB)만 전달하면 됨
+ * 리듀서는 레지스터 배열을 합쳐서 버킷별 추정 값을 저장함(표준 오차 약 1.6%)
+ *
+ * 세 번째 파라미터로 버킷 단위(hour, day, month)를 입력할 수 있음(기본 hour)
+ * 레지스터 수는 hllPrecision 변수로 설정함(기본 12 -> 4096개)
+ */
+@Log4j
+public class UniqueVisitor extends Configuration implements Tool {
+
+    // 버킷 단위와 HyperLogLog 레지스터 수(비트 수)를 저장하는 Configuration 변수 이름
+    public static final String TIME_BUCKET = "timeBucket";
+    public static final String HLL_PRECISION = "hllPrecision";
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 분석할 파일(폴더)과 분석 결과가 저장될 폴더 2개 받음
+        // 세 번째 파라미터로 버킷 단위(hour, day, month)를 입력할 수 있음(선택, 기본 hour)
+        if (args.length != 2 && args.length != 3) {
+            log.info("분석할 파일(폴더)과 분석 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new UniqueVisitor(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Unique Visitor");
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 버킷 단위 -- 세 번째 파라미터(선택), 입력하지 않으면 시간대
+        if (args.length == 3) {
+            conf.setEnum(TIME_BUCKET, TimeBucket.valueOf(args[2].toUpperCase()));
+        }
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        Job job = Job.getInstance(conf);
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(UniqueVisitor.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // 분석할 폴더(파일) -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // 분석 결과가 저장되는 폴더 -- 두 번째 파라미터
+        FileOutputFormat.setOutputPath(job, new Path(args[1]));
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(UniqueVisitorMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(UniqueVisitorReducer.class);
+
+        // 리듀서로 오는 데이터는 매퍼 수 * 버킷 수만큼의 레지스터 배열로 제한되기 때문에 리듀스는 1개만 실행함
+        // 결과 파일 1개에 버킷 순서로 저장됨
+        job.setNumReduceTasks(1);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 키(key)와 값(value)의 데이터 타입
+        // 키는 버킷 번호, 값은 버킷의 레지스터 배열
+        job.setMapOutputKeyClass(VIntWritable.class);
+        job.setMapOutputValueClass(HyperLogLog.class);
+
+        // 분석 결과가 저장될 때 사용될 키(key)와 값(value)의 데이터 타입; 버킷과 순 방문자 수
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(LongWritable.class);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        return (success ? 0 : 1);
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package partition;
+
+import common.parser.AccessLogParser;
+import common.sketch.HyperLogLog;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * 로그 한 줄의 IP를 버킷(시간대, 일, 월)별 HyperLogLog에 더하고, 매퍼가 끝날 때 버킷별 레지스터 배열만 전달하는 Mapper
+ *
+ * TimeLog, MonthLog는 (버킷, IP)마다 1건씩 Shuffle and Sort로 전달하지만,
+ * 이 매퍼는 IP 수와 관계없이 버킷마다 고정된 크기(기본 4KB)의 레지스터 배열 1개만 전달함
+ *
+ * IPv4 형태의 IP는 정수 값을, 호스트 이름 등은 바이트 값을 더함
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(VIntWritable, HyperLogLog)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ * 키는 버킷 번호, 값은 해당 버킷의 레지스터 배열
+ */
+public class UniqueVisitorMapper extends Mapper<LongWritable, Text, VIntWritable, HyperLogLog> {
+
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // 로그를 나누는 시간 단위
+    private TimeBucket timeBucket;
+
+    // 버킷별 HyperLogLog(로그가 있는 버킷만 만듦)
+    private HyperLogLog[] sketches;
+
+    private int precision;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        Configuration conf = context.getConfiguration();
+
+        this.timeBucket = conf.getEnum(UniqueVisitor.TIME_BUCKET, TimeBucket.HOUR);
+        this.precision = conf.getInt(UniqueVisitor.HLL_PRECISION, HyperLogLog.DEFAULT_PRECISION);
+        this.sketches = new HyperLogLog[timeBucket.size()];
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) 96.7.4.14 - - [24/Apr/2011:04:20:11 -0400] "GET /cat.jpg HTTP/1.1" 200 12433
+        if (!parser.parse(value) || !parser.isTimeValid()) {
+            return;
+        }
+
+        int bucket = timeBucket.bucketOf(parser);
+
+        if (bucket < 0) {
+            return;
+        }
+
+        HyperLogLog sketch = sketches[bucket];
+
+        if (sketch == null) {
+            sketch = new HyperLogLog(precision);
+            sketches[bucket] = sketch;
+        }
+
+        if (parser.isIpValid()) {
+            sketch.add(parser.getIp());
+        } else {
+            sketch.add(parser.getBytes(), parser.getIpStart(), parser.getIpLength());
+        }
+
+    }
+
+    /**
+     * 버킷별 레지스터 배열을 Shuffle and Sort로 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        VIntWritable outKey = new VIntWritable();
+
+        for (int bucket = 0; bucket < sketches.length; bucket++) {
+
+            if (sketches[bucket] == null) {
+                continue;
+            }
+
+            outKey.set(bucket);
+
+            context.write(outKey, sketches[bucket]);
+
+        }
+
+        super.cleanup(context);
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package partition;
+
+import common.sketch.HyperLogLog;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 매퍼들이 보낸 버킷별 HyperLogLog를 합쳐서 버킷별 순 방문자(서로 다른 IP) 수를 저장하는 Reducer
+ *
+ * 결과 파일에는 "버킷 순 방문자 수" 형태로 저장됨; ex) 04	1523
+ */
+public class UniqueVisitorReducer extends Reducer<VIntWritable, HyperLogLog, Text, LongWritable> {
+
+    // 로그를 나누는 시간 단위
+    private TimeBucket timeBucket;
+
+    // 매퍼들의 레지스터 배열을 합칠 객체; 버킷마다 비우고 재사용
+    private HyperLogLog merged;
+
+    // 결과 파일에 저장할 키(버킷)와 값(순 방문자 수); 태스크 동안 재사용
+    private final Text outKey = new Text();
+    private final LongWritable result = new LongWritable();
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.timeBucket = context.getConfiguration().getEnum(UniqueVisitor.TIME_BUCKET, TimeBucket.HOUR);
+        this.merged = new HyperLogLog(context.getConfiguration().getInt(UniqueVisitor.HLL_PRECISION, HyperLogLog.DEFAULT_PRECISION));
+
+    }
+
+    @Override
+    public void reduce(VIntWritable key, Iterable<HyperLogLog> values, Context context) throws IOException, InterruptedException {
+
+        merged.clear();
+
+        // values 객체는 재사용되기 때문에 레지스터별 최대 값을 merged 객체에 합침
+        for (HyperLogLog value : values) {
+            merged.merge(value);
+        }
+
+        outKey.set(timeBucket.label(key.get()));
+        result.set(merged.estimate());
+
+        context.write(outKey, result);
+
+    }
+
+}
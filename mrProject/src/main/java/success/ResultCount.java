@@ -1,5 +1,7 @@
 package success;
 
+import common.mapreduce.CountMapper;
+import common.mapreduce.RecordLog;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -42,8 +44,16 @@ public class ResultCount extends Configuration implements Tool {
         configuration.set("AppName", "Send Result");
 
         // URL 호출 결과가 성공인 경우(200)와 실패(200이 아닌 숫자) 설정값
+        // 쉼표로 구분하여 여러 코드를 한 번에 셀 수 있음 ex) 200,404,500 / all / 2xx,3xx,4xx,5xx
         configuration.set("resultCode", "200");
 
+        // 매퍼 안에서 코드별 빈도 수를 먼저 합치는 In-Mapper Combining 사용(코드 종류가 적어서 전달하는 레코드 수가 크게 줄어듦)
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+
+        // 코드 값 로그는 태스크마다 처음 10건만 남김
+        configuration.setInt(RecordLog.RECORD_LOG_FIRST, 10);
+        configuration.setInt(RecordLog.RECORD_LOG_SAMPLE, 0);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
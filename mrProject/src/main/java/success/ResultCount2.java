@@ -1,5 +1,7 @@
 package success;
 
+import common.mapreduce.CountMapper;
+import common.mapreduce.RecordLog;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -24,7 +26,9 @@ public class ResultCount2 extends Configuration implements Tool {
         // 파라미터는 분석 대상, 분석 결과가 저장될 위치, 전송 결과로 3개 받음
         // hadoop jar mr.jar success.ResultCount2 /access_log /result11 404(CLI;Xshell에서 입력하는 내용)
         // /access_log, /result11, 404 => 이 3개의 파라미터
-        if (args.length != 3) {
+        // 전송 결과는 쉼표로 구분하여 여러 개를 입력할 수 있음 ex) 200,404,500 / all / 2xx,3xx,4xx,5xx
+        // 네 번째 파라미터로 hour를 입력하면, 시간대별로 셈(선택) ex) success.ResultCount2 /access_log /result12 all,4xx hour
+        if (args.length != 3 && !(args.length == 4 && "hour".equals(args[3]))) {
             log.info("분석할 폴더(파일) 및 분석 결과가 저장될 폴더를 입력해야 합니다.");
             System.exit(-1);
         }
@@ -44,6 +48,13 @@ public class ResultCount2 extends Configuration implements Tool {
         // App 이름 정의
         configuration.set("AppName", "Send Result2");
 
+        // 매퍼 안에서 코드별 빈도 수를 먼저 합치는 In-Mapper Combining 사용(코드 종류가 적어서 전달하는 레코드 수가 크게 줄어듦)
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+
+        // 코드 값 로그는 태스크마다 처음 10건만 남김(모두 끄려면 0)
+        configuration.setInt(RecordLog.RECORD_LOG_FIRST, 10);
+        configuration.setInt(RecordLog.RECORD_LOG_SAMPLE, 0);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
@@ -70,6 +81,9 @@ public class ResultCount2 extends Configuration implements Tool {
         // 200, 403, 404 등 바뀌는 부분을 args[2]로 표시
         conf.set("resultCode", args[2]);
 
+        // 시간대별로 셀지 여부 -- 네 번째 파라미터(선택)
+        conf.setBoolean("resultByHour", args.length == 4);
+
         // 잡 이름 가져오기
         String appName = conf.get("AppName");
         log.info("appName : " + appName);
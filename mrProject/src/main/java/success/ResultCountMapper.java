@@ -1,35 +1,78 @@
 package success;
 
+import common.mapreduce.CountMapper;
+import common.mapreduce.RecordLog;
+import common.parser.AccessLogParser;
+import partition.TimeBucket;
 import lombok.extern.log4j.Log4j;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Counter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
+ * 출력 키(Text)와 값(IntWritable) 객체를 재사용하기 위해 Mapper를 상속받은 CountMapper를 상속받음
  * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
  * Mapper 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ *
+ * Driver 파일의 resultCode 값은 쉼표로 구분하여 여러 개를 입력할 수 있음
+ *  - 코드 값 ex) 200,404,500 : 입력한 코드별 빈도 수
+ *  - all : 모든 코드별 빈도 수
+ *  - 코드 분류 ex) 2xx,4xx : 분류(200~299 등)별 빈도 수를 "4xx" 키로 셈
+ * 1번의 분석으로 여러 코드의 빈도 수를 세기 때문에 코드마다 잡을 실행하지 않아도 됨
+ *
+ * 로그의 코드 값(0~999)을 인덱스로 사용하는 1000칸짜리 표로 셀지 여부를 확인하고, 키는 코드별로 미리 만들어 둠
+ * resultByHour 값이 true면 키 뒤에 시간대를 붙여서 시간대별로 셈 ex) 404	04
  */
 @Log4j
-public class ResultCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+public class ResultCountMapper extends CountMapper<LongWritable, Text> {
+
+    // 전송 결과 코드 값의 범위(0~999)
+    static final int CODE_LIMIT = 1000;
+
+    // 코드 값 표에 저장하는 값; 코드 값별로 세기, 코드 분류별로 세기
+    static final byte COUNT_CODE = 1;
+    static final byte COUNT_CLASS = 2;
 
     // 맵리듀스 잡 이름
     // 로그 출력 시, 확인을 위해 appName 변수로 활용
     String appName = "";
 
     // URL 전송 성공 여부 코드 값(성공 : 200, 실패 : 200 아닌 숫자)
-    // URL 요청 성공인 항목만 분석
+    // 쉼표로 구분하여 여러 개의 코드 값, 모든 코드(all), 코드 분류(2xx 등)를 입력할 수 있음
     String resultCode = "";
 
+    // 로그 한 줄을 분석하는 파서(모든 레코드에 재사용)
+    private final AccessLogParser parser = new AccessLogParser();
+
+    // 레코드마다 남기는 로그의 수를 제한하는 객체
+    private RecordLog recordLog;
+
+    // 코드 값이 없거나 범위를 벗어난 로그 수(레코드마다 Counter를 찾지 않도록 setup 함수에서 1번만 가져옴)
+    private Counter invalidStatusCounter;
+
+    // 코드 값(0~999)별로 셀 항목을 저장한 표(COUNT_CODE, COUNT_CLASS를 조합한 값, 0이면 세지 않음)
+    private final byte[] codeTable = new byte[CODE_LIMIT];
+
+    // 코드 값(0~999)별로 Shuffle and Sort로 전달할 키(코드 값, 코드 분류); 레코드마다 문자열을 만들지 않도록 미리 만들어 둠
+    private final byte[][] codeKeys = new byte[CODE_LIMIT][];
+    private final byte[][] classKeys = new byte[CODE_LIMIT / 100][];
+
+    // 시간대별로 셀지 여부
+    private boolean byHour;
+
+    // 키 뒤에 시간대를 붙일 때 사용하는 배열(코드 값 + 탭 + 시간대)
+    private final byte[] keyBuffer = new byte[16];
+
     /**
      * Driver 파일(ResultCount)에서 정의한 변수 값을 가져와 map 함수에 적용하기 위해 setup 함수 구현
      */
     @Override
-    protected void setup(Mapper<LongWritable, Text, Text, IntWritable>.Context context) throws IOException, InterruptedException {
+    protected void setup(Context context) throws IOException, InterruptedException {
 
         super.setup(context);
 
@@ -42,17 +85,33 @@ public class ResultCountMapper extends Mapper<LongWritable, Text, Text, IntWrita
         // Driver에서 정의된 환경 설정 값 가져오기
         // Driver에서 정의된 환경 설정 값이 없다면, 200으로 설정함
         this.resultCode = conf.get("resultCode", "200");
+        this.byHour = conf.getBoolean("resultByHour", false);
+
+        this.recordLog = RecordLog.of(context, log);
+        this.invalidStatusCounter = recordLog.counter("invalidStatus");
+
+        buildCodeTable(this.resultCode, this.codeTable);
+
+        for (int code = 0; code < CODE_LIMIT; code++) {
+            if ((codeTable[code] & COUNT_CODE) != 0) {
+                codeKeys[code] = String.valueOf(code).getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+
+        for (int i = 0; i < classKeys.length; i++) {
+            classKeys[i] = (i + "xx").getBytes(StandardCharsets.US_ASCII);
+        }
 
         log.info("[" + this.appName + "] 난 map 함수를 실행하기 전에 1번만 실행되는 setup 함수다!");
 
     }
 
     @Override
-    protected void cleanup(Mapper<LongWritable, Text, Text, IntWritable>.Context context) throws IOException, InterruptedException {
+    protected void cleanup(Context context) throws IOException, InterruptedException {
 
         super.cleanup(context);
 
-        log.info("[" + this.appName + "] 난 에러가 나도 무조건 실행되는 cleanup 함수다!");
+        log.info("[" + this.appName + "] 난 에러가 나도 무조건 실행되는 cleanup 함수다! " + recordLog.summary());
 
     }
 
@@ -62,29 +121,120 @@ public class ResultCountMapper extends Mapper<LongWritable, Text, Text, IntWrita
      * 파일의 라인 수가 100개라면, map 함수는 100번 실행됨
      */
     @Override
-    public void map(LongWritable key, Text value, Mapper.Context context) throws IOException, InterruptedException {
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) 10.223.157.186 - - [15/Jul/2009:15:50:35 -0700] "GET / HTTP/1.1" 200 9157
+        // split()으로 나누지 않고, 파서가 요청 내용 뒤의 전송 결과 코드를 숫자로 읽음
+        if (!parser.parse(value)) {
+            return;
+        }
+
+        // 전송 결과 코드; 200
+        int result = parser.getStatus();
+
+        // 모든 코드 값을 로그로 남기지 않고, Driver 파일에서 정한 일부 레코드만 남김
+        if (recordLog.sample()) {
+            log.info("[" + this.appName + "] " + result);
+        }
+
+        // 코드 값이 없거나 범위(0~999)를 벗어나면 세지 않고 Counter에 기록
+        if (result < 0 || result >= CODE_LIMIT) {
+            invalidStatusCounter.increment(1);
+            return;
+        }
+
+        // Driver 파일에서 정의한 코드 값(또는 분류)에 해당하는 로그만 Shuffle and Sort로 보내기
+        byte flags = codeTable[result];
+
+        if (flags == 0) {
+            return;
+        }
+
+        // 시간대별로 세는데 요청 일시가 없으면 세지 않음
+        int hour = byHour ? TimeBucket.HOUR.bucketOf(parser) : -1;
+
+        if (byHour && hour < 0) {
+            return;
+        }
+
+        if ((flags & COUNT_CODE) != 0) {
+            countKey(context, codeKeys[result], hour);
+        }
+
+        if ((flags & COUNT_CLASS) != 0) {
+            countKey(context, classKeys[result / 100], hour);
+        }
+
+    }
+
+    /**
+     * 코드 값(또는 분류) 키의 빈도 수(1) 세기; 시간대별로 세면 키 뒤에 탭과 시간대를 붙임
+     */
+    private void countKey(Context context, byte[] key, int hour) throws IOException, InterruptedException {
+
+        if (hour < 0) {
+            count(context, key, 0, key.length);
+            return;
+        }
+
+        byte[] label = TimeBucket.HOUR.label(hour);
+
+        System.arraycopy(key, 0, keyBuffer, 0, key.length);
+        keyBuffer[key.length] = '\t';
+        System.arraycopy(label, 0, keyBuffer, key.length + 1, label.length);
+
+        count(context, keyBuffer, 0, key.length + 1 + label.length);
+
+    }
+
+    /**
+     * resultCode 값(쉼표로 구분)으로 코드 값 표 만들기 ex) 200,404 / all / 4xx,5xx
+     */
+    static void buildCodeTable(String resultCode, byte[] table) {
+
+        for (String token : resultCode.split(",")) {
+
+            String value = token.trim().toLowerCase();
+
+            if (value.isEmpty()) {
+                continue;
+            }
+
+            if ("all".equals(value)) {
+
+                // 모든 코드 값
+                for (int code = 0; code < CODE_LIMIT; code++) {
+                    table[code] |= COUNT_CODE;
+                }
+
+            } else if (value.length() == 3 && value.endsWith("xx")) {
+
+                // 코드 분류; 4xx -> 400 ~ 499
+                // Character.isDigit은 ASCII가 아닌 숫자(전각 숫자 등)도 허용해서 표의 범위를 벗어나기 때문에 0 ~ 9만 허용함
+                char c = value.charAt(0);
+
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException("resultCode class must be 0xx ~ 9xx : " + value);
+                }
 
-        // 분석할 파일의 한 줄 값
-        String line = value.toString(); // ex) 10.223.157.186 - - [15/Jul/2009:15:50:35 -0700] "GET / HTTP/1.1" 200 9157
+                int first = (c - '0') * 100;
 
-        // 분석할 한 줄 내용을 공백을 기준으로 한 단어씩 나눔
-        String[] arr = line.split("\\W+"); // [10, 223, 157, 186, ***, 200, 9157]
+                for (int code = first; code < first + 100; code++) {
+                    table[code] |= COUNT_CLASS;
+                }
 
-        // 전송 결과 코드가 존재하는 위치
-        // 로그의 뒤에서 2번째에 성공 코드(200) 값이 존재함
-        // index는 0부터 시작하기 때문에 -2를 함
-        int pos = arr.length - 2;
+            } else {
 
-        // 전송 결과 코드
-        String result = arr[pos];
+                // 코드 값; 404
+                int code = Integer.parseInt(value);
 
-        log.info("[" + this.appName + "] " + result);
+                if (code < 0 || code >= CODE_LIMIT) {
+                    throw new IllegalArgumentException("resultCode must be between 0 and 999 : " + value);
+                }
 
-        // Driver 파일에서 정의한 코드 값과 로그의 코드 값이 일치한다면
-        if (resultCode.equals(result)) {
+                table[code] |= COUNT_CODE;
 
-            // 200 성공 코드 값만 Shuffle and Sort로 보내기
-            context.write(new Text(result), new IntWritable(1));
+            }
 
         }
 
@@ -1,5 +1,6 @@
 package tool;
 
+import common.mapreduce.CountMapper;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
@@ -39,6 +40,11 @@ public class WordCount2 extends Configuration implements Tool { // ToolRunner 
         // App 이름 정의
         configuration.set("AppName", "ToolRunner Test");
 
+        // 매퍼 안에서 단어 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        configuration.setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        configuration.setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
     }
 
     // Configuration 객체에 저장된 값 가져오기
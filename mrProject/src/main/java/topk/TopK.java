@@ -0,0 +1,130 @@
+package topk;
+
+import common.io.CountWordWritable;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * 빈도 수 결과 파일(키 탭 빈도 수)에서 빈도 수가 큰 K개만 찾는 맵리듀스의 드라이버 파일
+ * WordCount, WordCount2 등 WordCount 잡과 IPCount, IPCount2 잡의 결과 폴더를 입력으로 사용할 수 있음
+ *
+ * 결과 전체를 HDFS에서 가져와서 정렬하지 않고
+ *  1. 매퍼마다 크기가 K로 제한된 최소 힙으로 매퍼의 Top K만 전달하고(TopKMapper)
+ *  2. 리듀서 1개가 매퍼들의 Top K를 합쳐서 전체 Top K를 저장함(TopKReducer)
+ * K는 세 번째 파라미터로 입력할 수 있음(기본 100개)
+ *
+ * 입력 결과 파일의 키는 중복되지 않아야 함(리듀서가 키별로 합친 결과 파일이면 중복되지 않음)
+ */
+@Log4j
+public class TopK extends Configuration implements Tool {
+
+    // 찾을 항목 수를 저장하는 Configuration 변수 이름
+    public static final String TOP_K = "topK";
+
+    public static final int DEFAULT_TOP_K = 100;
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 빈도 수 결과 폴더와 Top K 결과가 저장될 폴더 2개 받음
+        // 세 번째 파라미터로 찾을 항목 수(K)를 입력할 수 있음(선택)
+        if (args.length != 2 && args.length != 3) {
+            log.info("빈도 수 결과 폴더와 Top K 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new TopK(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Top K");
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 찾을 항목 수 -- 세 번째 파라미터(선택), 입력하지 않으면 100개
+        if (args.length == 3) {
+            conf.setInt(TOP_K, Integer.parseInt(args[2]));
+        }
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        Job job = Job.getInstance(conf);
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(TopK.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // 빈도 수 결과 폴더 -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // Top K 결과가 저장되는 폴더 -- 두 번째 파라미터
+        FileOutputFormat.setOutputPath(job, new Path(args[1]));
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(TopKMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(TopKReducer.class);
+
+        // 매퍼들의 Top K를 합쳐야 하기 때문에 리듀스는 1개만 실행함
+        // 리듀서로 오는 데이터는 매퍼 수 * K건으로 제한됨
+        job.setNumReduceTasks(1);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 키(key)와 값(value)의 데이터 타입
+        // 키는 빈도 수가 큰 순서로 정렬됨
+        job.setMapOutputKeyClass(CountWordWritable.class);
+        job.setMapOutputValueClass(NullWritable.class);
+
+        // 분석 결과가 저장될 때 사용될 키(key)와 값(value)의 데이터 타입; 입력 결과 파일과 같은 형태
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(IntWritable.class);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        return (success ? 0 : 1);
+
+    }
+
+}
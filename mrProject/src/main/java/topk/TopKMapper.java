@@ -0,0 +1,81 @@
+package topk;
+
+import common.collect.TopKHeap;
+import common.io.CountWordWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * 빈도 수 결과 파일의 한 줄(키 탭 빈도 수)을 읽어서 빈도 수가 큰 K개만 남기는 Mapper
+ *
+ * 모든 줄을 리듀서로 보내지 않고, 크기가 K로 제한된 최소 힙(TopKHeap)에 넣어서 K번째보다 큰 줄만 남김
+ * cleanup 함수에서 매퍼의 Top K만 (빈도 수, 키) 형태로 전달하기 때문에 매퍼마다 최대 K건만 Shuffle and Sort로 전달됨
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(CountWordWritable, NullWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ */
+public class TopKMapper extends Mapper<LongWritable, Text, CountWordWritable, NullWritable> {
+
+    // 한 줄을 (빈도 수, 키)로 변환할 때 사용하는 객체(모든 레코드에 재사용)
+    private final CountWordWritable line = new CountWordWritable();
+
+    // 매퍼의 Top K를 저장하는 힙
+    private TopKHeap heap;
+
+    // 키 탭 빈도 수 형태가 아닌 줄 수
+    private Counter invalidCounter;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.heap = new TopKHeap(context.getConfiguration().getInt(TopK.TOP_K, TopK.DEFAULT_TOP_K));
+
+        // 레코드마다 Counter를 찾지 않도록 1번만 가져옴
+        this.invalidCounter = context.getCounter("topK", "invalid");
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) the	6, 96.7.4.14	3
+        if (!line.parse(value)) {
+            invalidCounter.increment(1);
+            return;
+        }
+
+        Text word = line.getWord();
+
+        heap.offer(word.getBytes(), 0, word.getLength(), line.getCount());
+
+    }
+
+    /**
+     * 매퍼의 Top K를 Shuffle and Sort로 전달하기
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+
+        CountWordWritable outKey = new CountWordWritable();
+
+        for (int i = 0; i < heap.size(); i++) {
+
+            outKey.set(heap.count(i), heap.keyBytes(i), 0, heap.keyLength(i));
+
+            context.write(outKey, NullWritable.get());
+
+        }
+
+        heap.clear();
+
+        super.cleanup(context);
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package topk;
+
+import common.io.CountWordWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 매퍼들이 보낸 Top K를 합쳐서 전체 Top K를 저장하는 Reducer(리듀서 1개로 실행)
+ *
+ * 키는 CountWordWritable에 등록된 Comparator가 빈도 수가 큰 순서로 정렬하기 때문에 앞에서부터 K개만 저장하면 됨
+ * 리듀서로 오는 데이터는 매퍼 수 * K건으로 제한되어 리듀서 1개로도 충분함
+ *
+ * 결과 파일은 입력 파일과 같은 "키 탭 빈도 수" 형태로 빈도 수가 큰 순서로 저장됨
+ */
+public class TopKReducer extends Reducer<CountWordWritable, NullWritable, Text, IntWritable> {
+
+    // 결과 파일에 저장할 빈도 수; 태스크 동안 재사용
+    private final IntWritable result = new IntWritable();
+
+    // 저장할 항목 수와 지금까지 저장한 항목 수
+    private int k;
+    private int written;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        this.k = context.getConfiguration().getInt(TopK.TOP_K, TopK.DEFAULT_TOP_K);
+
+    }
+
+    @Override
+    public void reduce(CountWordWritable key, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
+
+        result.set(key.getCount());
+
+        for (NullWritable ignored : values) {
+
+            if (written >= k) {
+                return;
+            }
+
+            context.write(key.getWord(), result);
+            written++;
+
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package wc;
 
+import common.mapreduce.CountMapper;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
@@ -41,6 +42,11 @@ public class WordCount {
         // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
         job.setMapperClass(WordCountMapper.class);
 
+        // 매퍼 안에서 단어 빈도 수를 먼저 합치는 In-Mapper Combining 사용
+        // 해시 테이블이 최대 메모리 크기(MB)를 넘으면, 합친 값을 먼저 전달하고 비움
+        job.getConfiguration().setBoolean(CountMapper.IN_MAPPER_COMBINE, true);
+        job.getConfiguration().setInt(CountMapper.IN_MAPPER_MEMORY_MB, CountMapper.DEFAULT_IN_MAPPER_MEMORY_MB);
+
         // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
         job.setReducerClass(WordCountReducer.class);
 
@@ -1,14 +1,15 @@
 package wc;
 
-import org.apache.hadoop.io.IntWritable;
+import common.mapreduce.CountMapper;
+import common.parser.WordTokenizer;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
-import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
 
 /**
  * 맵 역할을 수행하기 위해서는 Mapper 자바 파일을 상속받아야함
+ * 출력 키(Text)와 값(IntWritable) 객체를 재사용하기 위해 Mapper를 상속받은 CountMapper를 상속받음
  * Mapper 파일의 앞의 2개 데이터 타입(LongWritable, Text)은 분석할 파일의 키(key)와 값(value)의 데이터 타입
  * Mapper 파일의 뒤의 2개 데이터 타입(Text, IntWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
  */
@@ -16,7 +17,10 @@ import java.io.IOException;
 // FileInputFormat 객체로 분석할 파일을 읽으면, 무조건 LongWritable, Text로 설정함
 // Shuffle and Sort에 값을 전달할 데이터 타입(Text, IntWritable)
 // Shuffle and Sort는 리듀서에 같은 데이터 타입(Text, IntWritable)으로 전달
-public class WordCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+public class WordCountMapper extends CountMapper<LongWritable, Text> {
+
+    // 한 줄을 단어로 나누는 토크나이저(레코드마다 새로 만들지 않고 재사용함)
+    private final WordTokenizer tokenizer = new WordTokenizer();
 
     /**
      * 부모 Mapper 자바 파일에 작성된 map 함수를 덮어쓰기(Override) 수행
@@ -26,22 +30,17 @@ public class WordCountMapper extends Mapper<LongWritable, Text, Text, IntWritabl
     @Override
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
 
-        // 분석할 파일의 한 줄 값
-        String line = value.toString(); // ex) the cat sat on the mat
-
-        // 단어 빈도 수 구현은 공백을 기준으로 나눈 단어로 구분함
-        // 분석할 한 줄 내용을 공백으로 나눔
-        // word 변수에는 공백을 기준으로 나눠진 단어가 저장됨
-        for (String word : line.split("\\W+")) { // \\W+ : '알파벳, 숫자, _ 이외의 문자(특수문자, 공백)'를 의미하는 정규식
-
-            // word 변수에 값이 있다면
-            if (word.length() > 0) {
+        // 분석할 파일의 한 줄 값; ex) the cat sat on the mat
+        // String으로 변환하지 않고 Text의 바이트를 그대로 단어로 나눔
+        tokenizer.reset(value);
 
-                // Shuffle and Sort로 데이터 전달하기
-                // 전달하는 값을 단어와 빈도 수(1)를 전달함
-                context.write(new Text(word), new IntWritable(1));
+        // 단어 빈도 수 구현은 공백, 특수문자를 기준으로 나눈 단어로 구분함
+        // next()는 다음 단어가 있으면 true를 반환하며, 빈 단어는 만들지 않음
+        while (tokenizer.next()) {
 
-            }
+            // Shuffle and Sort로 데이터 전달하기
+            // 전달하는 값을 단어와 빈도 수(1)를 전달함(In-Mapper Combining을 사용하면 매퍼 안에서 먼저 합침)
+            count(context, tokenizer.getBytes(), tokenizer.getStart(), tokenizer.getLength());
 
         }
 
@@ -0,0 +1,210 @@
+package wc;
+
+import common.io.CountWordWritable;
+import common.mapreduce.LineSampler;
+import common.mapreduce.ReduceTasks;
+import lombok.extern.log4j.Log4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.partition.TotalOrderPartitioner;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WordCount 결과 파일(단어 탭 빈도 수)을 빈도 수가 큰 순서로 전체 정렬하는 두 번째 단계 맵리듀스의 드라이버 파일
+ * WordCount, WordCount2 등 모든 WordCount 잡의 결과 폴더를 입력으로 사용할 수 있음
+ *
+ * 리듀서 1개로 정렬하면 리듀서 1개가 모든 단어를 처리해야 하기 때문에 여러 리듀서에 빈도 수 범위별로 나눔
+ *  1. 잡을 실행하기 전에 입력 파일을 샘플링하여 (빈도 수, 단어) 키를 정렬하고, 리듀서 수 - 1개의 경계 값을 파티션 파일에 저장
+ *  2. TotalOrderPartitioner가 경계 값으로 키의 범위를 찾아 리듀서에 나눔(0번 리듀서가 가장 큰 빈도 수 범위)
+ *  3. part-r-00000, part-r-00001 등 결과 파일을 순서대로 이어 붙이면 전체 단어의 순위가 됨
+ */
+@Log4j
+public class WordRank extends Configuration implements Tool {
+
+    // 맵리듀스 실행 함수
+    public static void main(String[] args) throws Exception {
+
+        // 파라미터는 WordCount 결과 폴더와 정렬 결과가 저장될 폴더 2개 받음
+        // 세 번째 파라미터로 리듀스 수를 입력할 수 있음(선택)
+        if (args.length != 2 && args.length != 3) {
+            log.info("WordCount 결과 폴더와 정렬 결과가 저장될 폴더를 입력해야 합니다.");
+            System.exit(-1);
+        }
+
+        // ToolRunner를 이용한 맵리듀스 실행
+        int exitCode = ToolRunner.run(new WordRank(), args);
+
+        System.exit(exitCode);
+
+    }
+
+    // Configuration 객체에 저장될 값을 정의하며, 저장된 값은 하둡의 Context에 저장되어 맵리듀스 전체에서 사용 가능
+    @Override
+    public void setConf(Configuration configuration) {
+
+        // App 이름 정의
+        configuration.set("AppName", "Word Rank");
+
+    }
+
+    // Configuration 객체에 저장된 값 가져오기
+    @Override
+    public Configuration getConf() {
+
+        // 맵리듀스 전체에 적용될 변수를 정의할 때 사용
+        Configuration conf = new Configuration();
+
+        // 변수 정의
+        this.setConf(conf);
+
+        return conf;
+
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+
+        // Configuration 객체에 정의된 AppName 값 가져오기
+        Configuration conf = this.getConf();
+        String appName = conf.get("AppName");
+
+        log.info("aapName : " + appName);
+
+        // 맵리듀스 실행을 위한 잡 객체를 가져오기
+        Job job = Job.getInstance(conf);
+
+        // 맵리듀스 잡이 시작되는 main 함수가 존재하는 파일 설정
+        job.setJarByClass(WordRank.class);
+
+        // 맵리듀스 잡 이름 설정, 리소스 매니저 등 맵리듀스 실행 결과 및 로그 확일할 때 편리함
+        job.setJobName(appName);
+
+        // WordCount 결과 폴더 -- 첫 번째 파라미터
+        FileInputFormat.setInputPaths(job, new Path(args[0]));
+
+        // 정렬 결과가 저장되는 폴더 -- 두 번째 파라미터
+        Path output = new Path(args[1]);
+
+        FileOutputFormat.setOutputPath(job, output);
+
+        // 맵리듀스의 맵 역할을 수행하는 Mapper 자바 파일 설정
+        job.setMapperClass(WordRankMapper.class);
+
+        // 맵리듀스의 리듀스 역할을 수행하는 Reducer 자바 파일 설정
+        job.setReducerClass(WordRankReducer.class);
+
+        // Mapper에서 Shuffle and Sort로 전달하는 키(key)와 값(value)의 데이터 타입
+        job.setMapOutputKeyClass(CountWordWritable.class);
+        job.setMapOutputValueClass(NullWritable.class);
+
+        // 분석 결과가 저장될 때 사용될 키(key)와 값(value)의 데이터 타입; WordCount 결과 파일과 같은 형태
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(IntWritable.class);
+
+        // 리듀스 수 -- 세 번째 파라미터(선택), 입력하지 않으면 입력 파일 크기로 정함
+        int numReduceTasks = args.length == 3 ? Integer.parseInt(args[2]) : ReduceTasks.forInput(job);
+
+        // 리듀서가 1개면 Shuffle and Sort만으로 전체 정렬되기 때문에 파티션 파일이 필요 없음
+        Path partitionFile = null;
+
+        if (numReduceTasks > 1) {
+
+            // 파티션 파일은 정렬 결과 폴더 옆에 만들고, 잡이 끝나면 삭제함
+            partitionFile = output.suffix("_partitions");
+
+            // 샘플의 서로 다른 키가 부족하면 리듀서 수가 줄어들 수 있음
+            numReduceTasks = writePartitionFile(job, partitionFile, numReduceTasks);
+
+            // 리듀스를 여러 개 분산해서 실행하기 위해 사용되는 파티셔너 객체 설정
+            // 키의 범위로 리듀서를 나누는 하둡의 TotalOrderPartitioner 사용
+            TotalOrderPartitioner.setPartitionFile(job.getConfiguration(), partitionFile);
+            job.setPartitionerClass(TotalOrderPartitioner.class);
+
+        }
+
+        job.setNumReduceTasks(numReduceTasks);
+
+        // 맵리듀스 실행
+        boolean success = job.waitForCompletion(true);
+
+        if (partitionFile != null) {
+            partitionFile.getFileSystem(job.getConfiguration()).delete(partitionFile, false);
+        }
+
+        return (success ? 0 : 1);
+
+    }
+
+    /**
+     * 입력 파일을 샘플링하여 리듀서 수 - 1개의 경계 키를 파티션 파일에 저장하기
+     * TotalOrderPartitioner는 경계 키가 중복 없이 정렬 순서대로 저장되어 있어야 함
+     *
+     * @return 실제 리듀서 수(샘플의 서로 다른 키가 부족하면 numReduceTasks보다 작음)
+     */
+    private static int writePartitionFile(Job job, Path partitionFile, int numReduceTasks) throws IOException, InterruptedException {
+
+        List<CountWordWritable> samples = new ArrayList<>();
+
+        LineSampler.sample(job, LineSampler.DEFAULT_SAMPLES, LineSampler.DEFAULT_LINES_PER_SAMPLE, line -> {
+
+            // LineSampler가 전달하는 Text는 재사용되기 때문에 샘플마다 새 키 객체에 복사함
+            CountWordWritable key = new CountWordWritable();
+
+            if (key.parse(line)) {
+                samples.add(key);
+            }
+
+        });
+
+        // Shuffle and Sort와 같은 순서(빈도 수가 큰 순서)로 정렬하고 중복 키 제거
+        // CountWordWritable의 compareTo 함수는 등록된 Comparator와 순서가 같음
+        Collections.sort(samples);
+
+        List<CountWordWritable> keys = new ArrayList<>();
+
+        for (CountWordWritable key : samples) {
+            if (keys.isEmpty() || !keys.get(keys.size() - 1).equals(key)) {
+                keys.add(key);
+            }
+        }
+
+        int reducers = Math.min(numReduceTasks, keys.size() + 1);
+
+        Configuration conf = job.getConfiguration();
+        FileSystem fs = partitionFile.getFileSystem(conf);
+
+        fs.delete(partitionFile, false);
+
+        try (SequenceFile.Writer writer = SequenceFile.createWriter(conf,
+                SequenceFile.Writer.file(partitionFile),
+                SequenceFile.Writer.keyClass(CountWordWritable.class),
+                SequenceFile.Writer.valueClass(NullWritable.class))) {
+
+            // 샘플을 리듀서 수만큼 같은 크기로 나누는 위치의 키를 경계로 사용
+            for (int i = 1; i < reducers; i++) {
+                writer.append(keys.get((int) ((long) keys.size() * i / reducers)), NullWritable.get());
+            }
+
+        }
+
+        log.info("partition samples : " + samples.size() + ", reducers : " + reducers);
+
+        return reducers;
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package wc;
+
+import common.io.CountWordWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+/**
+ * WordCount 결과 파일의 한 줄(단어 탭 빈도 수)을 (빈도 수, 단어) 키로 바꿔서 전달하는 Mapper
+ * 정렬은 CountWordWritable에 등록된 Comparator가 빈도 수가 큰 순서로 수행함
+ *
+ * Mapper 파일의 뒤의 2개 데이터 타입(CountWordWritable, NullWritable)은 리듀스에 보낼 키(key)와 값(value)의 데이터 타입
+ * 단어와 빈도 수는 모두 키에 포함되어 있기 때문에 값은 전달하지 않음
+ */
+public class WordRankMapper extends Mapper<LongWritable, Text, CountWordWritable, NullWritable> {
+
+    // Shuffle and Sort로 전달할 키(모든 레코드에 재사용)
+    private final CountWordWritable outKey = new CountWordWritable();
+
+    // 단어 탭 빈도 수 형태가 아닌 줄 수
+    private Counter invalidCounter;
+
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+
+        super.setup(context);
+
+        // 레코드마다 Counter를 찾지 않도록 1번만 가져옴
+        this.invalidCounter = context.getCounter("wordRank", "invalid");
+
+    }
+
+    @Override
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+
+        // 분석할 파일의 한 줄 값 ex) the	6
+        if (!outKey.parse(value)) {
+            invalidCounter.increment(1);
+            return;
+        }
+
+        context.write(outKey, NullWritable.get());
+
+    }
+
+}
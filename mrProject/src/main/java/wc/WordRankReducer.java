@@ -0,0 +1,34 @@
+package wc;
+
+import common.io.CountWordWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+/**
+ * 빈도 수가 큰 순서로 정렬된 (빈도 수, 단어) 키를 WordCount 결과 파일과 같은 "단어 탭 빈도 수" 형태로 저장하는 Reducer
+ *
+ * TotalOrderPartitioner가 빈도 수 범위별로 리듀서를 나누기 때문에(0번 리듀서가 가장 큰 빈도 수 범위)
+ * part-r-00000, part-r-00001 등 결과 파일을 순서대로 이어 붙이면 전체 단어의 순위가 됨
+ */
+public class WordRankReducer extends Reducer<CountWordWritable, NullWritable, Text, IntWritable> {
+
+    // 결과 파일에 저장할 빈도 수; 태스크 동안 재사용
+    private final IntWritable result = new IntWritable();
+
+    @Override
+    public void reduce(CountWordWritable key, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
+
+        result.set(key.getCount());
+
+        // WordCount 결과 파일에서 단어는 보통 1번만 나오지만, 여러 결과 파일을 함께 입력하면 같은 키가 여러 번 올 수 있어서 값 수만큼 저장함
+        for (NullWritable ignored : values) {
+            context.write(key.getWord(), result);
+        }
+
+    }
+
+}